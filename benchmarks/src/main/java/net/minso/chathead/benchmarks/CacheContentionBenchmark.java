@@ -0,0 +1,82 @@
+package net.minso.chathead.benchmarks;
+
+import net.md_5.bungee.api.chat.BaseComponent;
+import net.minso.chathead.API.FetchPriority;
+import net.minso.chathead.API.HeadCache;
+import net.minso.chathead.API.SkinSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@code HeadCache.getCachedHead} called by many threads at once, as chat and placeholder threads do
+ * during a chat storm, on a real cache running without a server.
+ * <p>
+ * A hit looks up a cached head; a miss looks up a head whose fetch is still pending, which returns the fallback head
+ * and tries to promote the pending fetch. Every thread cycles through the same players, so they contend on the
+ * same entries.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class CacheContentionBenchmark {
+
+    private static final int PLAYERS = 64;
+
+    private final UUID[] players = new UUID[PLAYERS];
+    private SkinSource source;
+    private HeadCache hitCache;
+    private HeadCache missCache;
+
+    @Setup
+    public void setup() {
+        BaseComponent[] head = HeadlessCache.sampleHead();
+        source = HeadlessCache.sourceOf(head);
+        hitCache = HeadlessCache.create(true);
+        missCache = HeadlessCache.create(false);
+        for (int i = 0; i < PLAYERS; i++) {
+            players[i] = new UUID(0x0123456789ABCDEFL, i);
+            // Caches the head in hitCache, leaves the fetch pending in missCache.
+            hitCache.getCachedHead(players[i], null, true, source, FetchPriority.NORMAL);
+            missCache.getCachedHead(players[i], null, true, source, FetchPriority.NORMAL);
+        }
+    }
+
+    /**
+     * The player each thread looks up next.
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next;
+
+        UUID next(UUID[] players) {
+            return players[next++ & (PLAYERS - 1)];
+        }
+    }
+
+    @Benchmark
+    public BaseComponent[] hit(Cursor cursor) {
+        return hitCache.getCachedHead(cursor.next(players), null, true, source, FetchPriority.NORMAL);
+    }
+
+    @Benchmark
+    public BaseComponent[] miss(Cursor cursor) {
+        return missCache.getCachedHead(cursor.next(players), null, true, source, FetchPriority.NORMAL);
+    }
+}
@@ -0,0 +1,93 @@
+package net.minso.chathead.benchmarks;
+
+import net.md_5.bungee.api.chat.BaseComponent;
+import net.minso.chathead.API.HeadCache;
+import net.minso.chathead.API.HeadCachePlatform;
+import net.minso.chathead.API.SkinSource;
+import net.minso.chathead.API.SkinSourceEnum;
+import net.minso.chathead.API.fetch.FetchEngine;
+import net.minso.chathead.API.fetch.PriorityFetchQueue;
+import net.minso.chathead.API.impl.MojangSource;
+import net.minso.chathead.API.metrics.HeadMetrics;
+import net.minso.chathead.API.shared.SharedHeadStore;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.UUID;
+import java.util.logging.Logger;
+
+/**
+ * Real {@link HeadCache}s running without a server, for the benchmarks of its lookups.
+ */
+final class HeadlessCache {
+
+    private HeadlessCache() {
+    }
+
+    /**
+     * @return the head rendered from the modern sample skin, with its overlay.
+     */
+    static BaseComponent[] sampleHead() {
+        SkinSource renderer = new MojangSource();
+        return renderer.toBaseComponent(renderer.getPixelColorsFromSkin(SampleSkins.extract(SampleSkins.MODERN), true));
+    }
+
+    /**
+     * @param head the head returned for every player.
+     * @return a source returning {@code head} without any I/O.
+     */
+    static SkinSource sourceOf(BaseComponent[] head) {
+        return new SkinSource(SkinSourceEnum.MOJANG, false) {
+            @Override
+            public BaseComponent[] getHead(UUID uuid, @Nullable String name, boolean overlay) {
+                return head;
+            }
+        };
+    }
+
+    /**
+     * Creates a cache of offline players whose heads never expire.
+     *
+     * @param fetchesComplete {@code true} to run fetches inline, so the first lookup of a head caches it;
+     *                        {@code false} to never run them, so every lookup is a miss on a head being fetched.
+     */
+    static HeadCache create(boolean fetchesComplete) {
+        HeadCachePlatform platform = new HeadCachePlatform() {
+            @Override
+            public boolean isEnabled() {
+                return true;
+            }
+
+            @Override
+            public boolean isOnline(UUID uuid) {
+                return false;
+            }
+
+            @Override
+            public @Nullable String getName(UUID uuid) {
+                return null;
+            }
+
+            @Override
+            public Logger getLogger() {
+                return Logger.getLogger("ChatHead");
+            }
+        };
+        FetchEngine engine = new FetchEngine() {
+            @Override
+            public void execute(Runnable fetch) {
+                if (fetchesComplete) fetch.run();
+            }
+
+            @Override
+            public void shutdown() {
+            }
+
+            @Override
+            public String getName() {
+                return fetchesComplete ? "inline" : "never";
+            }
+        };
+        HeadMetrics metrics = new HeadMetrics();
+        return new HeadCache(platform, Long.MAX_VALUE / 2, metrics, new PriorityFetchQueue(engine, 1, metrics), SharedHeadStore.NONE);
+    }
+}
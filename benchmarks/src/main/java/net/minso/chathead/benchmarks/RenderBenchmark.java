@@ -0,0 +1,70 @@
+package net.minso.chathead.benchmarks;
+
+import net.md_5.bungee.api.chat.BaseComponent;
+import net.minso.chathead.API.HeadRenderMode;
+import net.minso.chathead.API.SkinSource;
+import net.minso.chathead.API.impl.MojangSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks pixel extraction from a skin and rendering of the 8x8 component grid.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RenderBenchmark {
+
+    @Param({SampleSkins.MODERN, SampleSkins.LEGACY})
+    public String skin;
+
+    @Param({"true", "false"})
+    public boolean overlay;
+
+    @Param({"FULL", "DOWNSAMPLED", "PALETTE"})
+    public HeadRenderMode mode;
+
+    @Param({"0", "20"})
+    public int mergeThreshold;
+
+    private SkinSource source;
+    private String skinUrl;
+    private String[] hexColors;
+
+    @Setup
+    public void setup() {
+        source = new MojangSource();
+        skinUrl = SampleSkins.extract(skin);
+        hexColors = source.getPixelColorsFromSkin(skinUrl, overlay);
+    }
+
+    /**
+     * Reading, decoding and extracting the face pixels of a skin.
+     */
+    @Benchmark
+    public String[] getPixelColorsFromSkin() {
+        return source.getPixelColorsFromSkin(skinUrl, overlay);
+    }
+
+    /**
+     * Building the colored components of a head from its pixel colors.
+     */
+    @Benchmark
+    public BaseComponent[] render() {
+        return mode.render(hexColors, mergeThreshold);
+    }
+}
@@ -0,0 +1,44 @@
+package net.minso.chathead.benchmarks;
+
+import net.minso.chathead.API.HeadRenderMode;
+import net.minso.chathead.API.SkinSource;
+import net.minso.chathead.API.impl.MojangSource;
+
+/**
+ * Prints the size/quality trade-off of every {@link HeadRenderMode} on the sample skins, for a few palette
+ * quantization thresholds: components per head, length in legacy text format and mean perceptual error.
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar net.minso.chathead.benchmarks.RenderModeReport [threshold...]
+ * </pre>
+ */
+public final class RenderModeReport {
+
+    private static final int[] DEFAULT_THRESHOLDS = {0, 10, 20, 40};
+
+    private RenderModeReport() {
+    }
+
+    public static void main(String[] args) {
+        int[] thresholds = DEFAULT_THRESHOLDS;
+        if (args.length > 0) {
+            thresholds = new int[args.length];
+            for (int i = 0; i < args.length; i++) {
+                thresholds[i] = Integer.parseInt(args[i]);
+            }
+        }
+
+        SkinSource source = new MojangSource();
+        System.out.printf("%-12s %-12s %9s %10s %11s %10s%n", "skin", "mode", "threshold", "components", "legacy (B)", "mean error");
+        for (String skin : new String[]{SampleSkins.MODERN, SampleSkins.LEGACY}) {
+            String[] hexColors = source.getPixelColorsFromSkin(SampleSkins.extract(skin), true);
+            for (HeadRenderMode mode : HeadRenderMode.values()) {
+                for (int threshold : thresholds) {
+                    HeadRenderMode.Report report = mode.report(hexColors, threshold);
+                    System.out.printf("%-12s %-12s %9d %10d %11d %10.1f%n", skin, mode, threshold,
+                            report.components(), report.legacyLength(), report.meanError());
+                }
+            }
+        }
+    }
+}
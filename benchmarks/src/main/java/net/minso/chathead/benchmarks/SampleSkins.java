@@ -0,0 +1,50 @@
+package net.minso.chathead.benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Access to the sample skins bundled with the benchmarks.
+ * <p>
+ * The skins are copied to a temporary file so the benchmarks read them through a plain {@code file:} URL,
+ * which keeps jar decompression out of the measured extraction path.
+ * </p>
+ */
+final class SampleSkins {
+
+    /**
+     * A 64x64 skin with a partially transparent overlay layer.
+     */
+    static final String MODERN = "modern.png";
+
+    /**
+     * A legacy 64x32 skin without an overlay layer.
+     */
+    static final String LEGACY = "legacy.png";
+
+    private SampleSkins() {
+    }
+
+    /**
+     * Extracts a bundled sample skin and returns its {@code file:} URL.
+     *
+     * @param name the name of the skin, e.g. {@link #MODERN}.
+     * @return the URL of the extracted skin.
+     */
+    static String extract(String name) {
+        try (InputStream in = SampleSkins.class.getResourceAsStream("/skins/" + name)) {
+            if (in == null) throw new IllegalArgumentException("Unknown sample skin: " + name);
+
+            Path file = Files.createTempFile("chathead-skin-", ".png");
+            file.toFile().deleteOnExit();
+            Files.copy(in, file, StandardCopyOption.REPLACE_EXISTING);
+            return file.toUri().toURL().toExternalForm();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package net.minso.chathead.benchmarks;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
+import net.md_5.bungee.api.chat.BaseComponent;
+import net.minso.chathead.API.FetchPriority;
+import net.minso.chathead.API.HeadCache;
+import net.minso.chathead.API.SkinSource;
+import net.minso.chathead.listener.HeadPrefixCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the per-call work done on a cache hit by {@code ChatHeadAPI.getHeadAsString},
+ * {@code ChatHeadAPI.getHeadAsComponent} and {@code PlayerListener.insertPlayerHead}.
+ * <p>
+ * Those methods need a running server, so the benchmarks call the code they delegate to on a real cache running
+ * without a server: {@code HeadCache.getCachedHeadAsString}, which serializes each cached head once, and
+ * {@code HeadPrefixCache}, which serializes each head prefix once.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    private static final UUID PLAYER = UUID.fromString("069a79f4-44e9-4726-a5be-fca90e38aaf5");
+    private static final String MESSAGE = "<Notch> Hello there, how is everyone doing today?";
+
+    private HeadCache cache;
+    private SkinSource source;
+    private String legacyHead;
+    private HeadPrefixCache prefixes;
+    private HeadPrefixCache emptyPrefixes;
+
+    @Setup
+    public void setup() {
+        cache = HeadlessCache.create(true);
+        source = HeadlessCache.sourceOf(HeadlessCache.sampleHead());
+        // The first lookup fetches the head inline, every later one is a hit.
+        legacyHead = cache.getCachedHeadAsString(PLAYER, null, true, source, FetchPriority.NORMAL);
+        prefixes = new HeadPrefixCache();
+        prefixes.prepend(PLAYER, cachedHead(), MESSAGE, true);
+        emptyPrefixes = new HeadPrefixCache();
+    }
+
+    private BaseComponent[] cachedHead() {
+        return cache.getCachedHead(PLAYER, null, true, source, FetchPriority.NORMAL);
+    }
+
+    /**
+     * {@code ChatHeadAPI.getHeadAsString}: the legacy text of a cached head, serialized when it was cached.
+     */
+    @Benchmark
+    public String getHeadAsString() {
+        return cache.getCachedHeadAsString(PLAYER, null, true, source, FetchPriority.NORMAL);
+    }
+
+    /**
+     * {@code ChatHeadAPI.getHeadAsComponent}: the legacy text of a cached head followed by Adventure deserialization.
+     */
+    @Benchmark
+    public Component getHeadAsComponent() {
+        LegacyComponentSerializer legacySerializer = LegacyComponentSerializer.builder().build();
+        return legacySerializer.deserialize(cache.getCachedHeadAsString(PLAYER, null, true, source, FetchPriority.NORMAL));
+    }
+
+    /**
+     * Adventure deserialization alone, given an already serialized head.
+     */
+    @Benchmark
+    public Component deserializeLegacyHead() {
+        return LegacyComponentSerializer.legacySection().deserialize(legacyHead);
+    }
+
+    /**
+     * {@code PlayerListener.insertPlayerHead}: prefixing a chat message with a cached head whose prefix was built.
+     */
+    @Benchmark
+    public String insertPlayerHead() {
+        return prefixes.prepend(PLAYER, cachedHead(), MESSAGE, true);
+    }
+
+    /**
+     * {@code PlayerListener.insertPlayerHead} right after the head changed: the prefix is built again.
+     */
+    @Benchmark
+    public String insertChangedPlayerHead() {
+        return emptyPrefixes.prepend(PLAYER, cachedHead(), MESSAGE, false);
+    }
+}
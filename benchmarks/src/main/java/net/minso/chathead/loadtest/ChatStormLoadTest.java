@@ -0,0 +1,205 @@
+package net.minso.chathead.loadtest;
+
+import net.md_5.bungee.api.chat.BaseComponent;
+import net.minso.chathead.API.FallbackHead;
+import net.minso.chathead.API.FetchPriority;
+import net.minso.chathead.API.HeadCache;
+import net.minso.chathead.API.HeadCachePlatform;
+import net.minso.chathead.API.SkinSource;
+import net.minso.chathead.API.SkinSourceEnum;
+import net.minso.chathead.API.fetch.ExecutorFetchEngine;
+import net.minso.chathead.API.fetch.FetchEngine;
+import net.minso.chathead.API.fetch.PriorityFetchQueue;
+import net.minso.chathead.API.fetch.VirtualThreadFetchEngine;
+import net.minso.chathead.API.impl.MojangSource;
+import net.minso.chathead.API.metrics.HeadMetrics;
+import net.minso.chathead.API.metrics.LatencyHistogram;
+import net.minso.chathead.API.metrics.MetricsSnapshot;
+import net.minso.chathead.API.shared.SharedHeadStore;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Headless load test simulating a join flood followed by a chat storm against a {@link StubSkinServer}.
+ * <p>
+ * Players join evenly over the join window, then random online players chat at the requested rate. Every join
+ * and chat message looks up the player's head in a real {@link HeadCache}, fetching it from the stub through a
+ * {@link PriorityFetchQueue} on the engine the plugin picks by default: virtual threads when available, otherwise a
+ * thread pool. Messages whose head isn't cached yet go out with the fallback head.
+ * </p>
+ * <p>
+ * Usage: {@code java -cp target/benchmarks.jar net.minso.chathead.loadtest.ChatStormLoadTest
+ * [players] [messagesPerSecond] [durationSeconds] [joinWindowSeconds] [latencyMillis] [rateLimitPerSecond]}
+ * </p>
+ */
+public final class ChatStormLoadTest {
+
+    private static final Logger LOGGER = Logger.getLogger("ChatHead");
+
+    private final SkinSource source;
+    private final HeadMetrics metrics = new HeadMetrics();
+    private final FetchEngine engine = createFetchEngine();
+    private final HeadCache cache;
+
+    /**
+     * The name of every online player.
+     */
+    private final Map<UUID, String> online = new ConcurrentHashMap<>();
+    private final LatencyHistogram lookupLatency = new LatencyHistogram();
+    private final LongAdder messages = new LongAdder();
+    private final LongAdder messagesWithHead = new LongAdder();
+
+    private ChatStormLoadTest(SkinSource source) {
+        this.source = source;
+        PriorityFetchQueue fetchQueue = new PriorityFetchQueue(engine, engine.getDefaultMaxConcurrency(), metrics);
+        this.cache = new HeadCache(new LoadTestPlatform(), TimeUnit.MINUTES.toMillis(5), metrics, fetchQueue, SharedHeadStore.NONE);
+    }
+
+    public static void main(String[] args) throws Exception {
+        int players = intArg(args, 0, 500);
+        int messagesPerSecond = intArg(args, 1, 200);
+        int durationSeconds = intArg(args, 2, 30);
+        int joinWindowSeconds = intArg(args, 3, 10);
+        int latencyMillis = intArg(args, 4, 80);
+        int rateLimit = intArg(args, 5, 100);
+
+        try (StubSkinServer server = new StubSkinServer(latencyMillis, latencyMillis / 2, rateLimit)) {
+            ChatStormLoadTest test = new ChatStormLoadTest(new MojangSource(true, server.getBaseUrl(), server.getBaseUrl()));
+            long start = System.nanoTime();
+            test.run(players, messagesPerSecond, durationSeconds, joinWindowSeconds);
+            double elapsed = (System.nanoTime() - start) / 1e9;
+
+            test.report(elapsed, server);
+        }
+    }
+
+    private void run(int players, int messagesPerSecond, int durationSeconds, int joinWindowSeconds) throws InterruptedException {
+        List<UUID> joined = new ArrayList<>();
+        long start = System.nanoTime();
+        long end = start + TimeUnit.SECONDS.toNanos(durationSeconds);
+        long joinInterval = players == 0 ? 0 : TimeUnit.SECONDS.toNanos(joinWindowSeconds) / players;
+        long messageInterval = messagesPerSecond == 0 ? Long.MAX_VALUE : TimeUnit.SECONDS.toNanos(1) / messagesPerSecond;
+        long nextJoin = start;
+        long nextMessage = start;
+
+        while (System.nanoTime() < end) {
+            long now = System.nanoTime();
+            if (joined.size() < players && now >= nextJoin) {
+                String name = "Player" + joined.size();
+                UUID uuid = UUID.nameUUIDFromBytes(name.getBytes());
+                online.put(uuid, name);
+                joined.add(uuid);
+                // Like PlayerListener.onPlayerLogin.
+                lookup(uuid, FetchPriority.HIGH);
+                nextJoin += joinInterval;
+                continue;
+            }
+            if (!joined.isEmpty() && now >= nextMessage) {
+                UUID chatter = joined.get(ThreadLocalRandom.current().nextInt(joined.size()));
+                messages.increment();
+                if (lookup(chatter, FetchPriority.HIGH)) messagesWithHead.increment();
+                nextMessage += messageInterval;
+                continue;
+            }
+            TimeUnit.NANOSECONDS.sleep(Math.max(0, Math.min(nextJoin, nextMessage) - now));
+        }
+
+        // Let the fetches still queued or running finish before reporting.
+        long drainEnd = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (metrics.snapshot().queueDepth() > 0 && System.nanoTime() < drainEnd) {
+            TimeUnit.MILLISECONDS.sleep(50);
+        }
+        engine.shutdown();
+    }
+
+    /**
+     * Looks up a head the way {@code PlayerListener} does for every message.
+     *
+     * @return {@code true} if the player's real head was available immediately.
+     */
+    private boolean lookup(UUID uuid, FetchPriority priority) {
+        long lookupStart = System.nanoTime();
+        BaseComponent[] head = cache.getCachedHead(uuid, online.get(uuid), true, source, priority);
+        lookupLatency.recordNanos(System.nanoTime() - lookupStart);
+        return head.length > 0 && !FallbackHead.isFallback(head);
+    }
+
+    private void report(double elapsedSeconds, StubSkinServer server) {
+        MetricsSnapshot snapshot = metrics.snapshot();
+        MetricsSnapshot.SourceSnapshot mojang = snapshot.sources().get(SkinSourceEnum.MOJANG);
+        MetricsSnapshot.QueueSnapshot queue = snapshot.queues().get(FetchPriority.HIGH);
+        long sent = messages.sum();
+
+        System.out.printf("Fetch engine:        %s%n", engine.getName());
+        System.out.printf("Duration:            %.1f s%n", elapsedSeconds);
+        System.out.printf("Chat throughput:     %.1f msg/s (%d messages)%n", sent / elapsedSeconds, sent);
+        System.out.printf("Head-present ratio:  %.2f%%%n", sent == 0 ? 0 : 100.0 * messagesWithHead.sum() / sent);
+        System.out.printf("Lookup latency:      p50 %d µs, p99 %d µs, p99.9 %d µs, max %d µs%n",
+                lookupLatency.getPercentileMicros(50), lookupLatency.getPercentileMicros(99),
+                lookupLatency.getPercentileMicros(99.9), lookupLatency.getMaxMicros());
+        System.out.printf("Cache lookups:       %d hits, %d stale hits, %d misses (%.1f%% hit ratio)%n",
+                snapshot.hits(), snapshot.staleHits(), snapshot.misses(), snapshot.hitRatio() * 100);
+        System.out.printf("Queue wait:          p50 %d ms, p99 %d ms, max %d ms (%d fetches started)%n",
+                queue.p50WaitMicros() / 1000, queue.p99WaitMicros() / 1000, queue.maxWaitMicros() / 1000, queue.started());
+        System.out.printf("Fetch latency:       p50 %d ms, p99 %d ms, max %d ms%n",
+                mojang.p50Micros() / 1000, mojang.p99Micros() / 1000, mojang.maxMicros() / 1000);
+        System.out.printf("Fetches:             %d (%.1f%% failed) %s%n", mojang.fetches(), mojang.errorRate() * 100, mojang.failures());
+        System.out.printf("Heads cached:        %d, still pending: %d%n", snapshot.entryCount(), snapshot.queueDepth());
+        System.out.printf("Stub server:         %d served, %d rate limited (429)%n", server.getServed(), server.getRateLimited());
+    }
+
+    /**
+     * Creates the engine the plugin uses by default: virtual threads when available, otherwise a thread pool.
+     */
+    private static FetchEngine createFetchEngine() {
+        if (VirtualThreadFetchEngine.isSupported()) {
+            try {
+                return new VirtualThreadFetchEngine(LOGGER);
+            } catch (ReflectiveOperationException e) {
+                LOGGER.log(Level.WARNING, "Could not create virtual threads, falling back to a thread pool", e);
+            }
+        }
+        return new ExecutorFetchEngine(Executors.newCachedThreadPool(), "Thread pool");
+    }
+
+    /**
+     * {@link HeadCachePlatform} of the simulated players, who never leave.
+     */
+    private class LoadTestPlatform implements HeadCachePlatform {
+
+        @Override
+        public boolean isEnabled() {
+            return true;
+        }
+
+        @Override
+        public boolean isOnline(UUID uuid) {
+            return online.containsKey(uuid);
+        }
+
+        @Override
+        public @Nullable String getName(UUID uuid) {
+            return online.get(uuid);
+        }
+
+        @Override
+        public Logger getLogger() {
+            return LOGGER;
+        }
+    }
+
+    private static int intArg(String[] args, int index, int defaultValue) {
+        return args.length > index ? Integer.parseInt(args[index]) : defaultValue;
+    }
+}
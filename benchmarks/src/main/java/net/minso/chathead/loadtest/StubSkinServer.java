@@ -0,0 +1,156 @@
+package net.minso.chathead.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An embedded HTTP server mimicking the parts of Mojang's API used by
+ * {@link net.minso.chathead.API.impl.MojangSource}: name lookup, session profile and texture download.
+ * <p>
+ * Every response is delayed by a configurable latency with jitter, and requests above the configured
+ * rate are answered with {@code 429 Too Many Requests}, like Mojang's rate limiter does.
+ * </p>
+ */
+public class StubSkinServer implements AutoCloseable {
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final byte[] skin;
+    private final long latencyMillis;
+    private final long jitterMillis;
+    private final long requestsPerSecond;
+
+    private final AtomicLong windowStart = new AtomicLong();
+    private final AtomicLong windowRequests = new AtomicLong();
+
+    private final LongAdder served = new LongAdder();
+    private final LongAdder rateLimited = new LongAdder();
+
+    /**
+     * Starts a stub server on a random local port.
+     *
+     * @param latencyMillis     the base latency added to every response.
+     * @param jitterMillis      the maximum random latency added on top of the base latency.
+     * @param requestsPerSecond the number of requests accepted per second before answering 429, {@code 0} for unlimited.
+     * @throws IOException if the server couldn't be started.
+     */
+    public StubSkinServer(long latencyMillis, long jitterMillis, long requestsPerSecond) throws IOException {
+        this.latencyMillis = latencyMillis;
+        this.jitterMillis = jitterMillis;
+        this.requestsPerSecond = requestsPerSecond;
+
+        try (InputStream in = StubSkinServer.class.getResourceAsStream("/skins/modern.png")) {
+            if (in == null) throw new IOException("Missing bundled sample skin");
+            this.skin = in.readAllBytes();
+        }
+
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        this.server.setExecutor(executor);
+        this.server.createContext("/users/profiles/minecraft/", this::handleNameLookup);
+        this.server.createContext("/session/minecraft/profile/", this::handleProfile);
+        this.server.createContext("/texture/", this::handleTexture);
+        this.server.start();
+    }
+
+    /**
+     * @return the base URL of this server, usable as both the profile API and session server URL.
+     */
+    public String getBaseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    /**
+     * @return the number of requests answered successfully.
+     */
+    public long getServed() {
+        return served.sum();
+    }
+
+    /**
+     * @return the number of requests answered with {@code 429}.
+     */
+    public long getRateLimited() {
+        return rateLimited.sum();
+    }
+
+    private void handleNameLookup(HttpExchange exchange) throws IOException {
+        if (!admit(exchange)) return;
+
+        String name = exchange.getRequestURI().getPath().substring("/users/profiles/minecraft/".length());
+        String id = UUID.nameUUIDFromBytes(name.getBytes(StandardCharsets.UTF_8)).toString().replace("-", "");
+        respond(exchange, 200, "application/json", ("{\"id\":\"" + id + "\",\"name\":\"" + name + "\"}").getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void handleProfile(HttpExchange exchange) throws IOException {
+        if (!admit(exchange)) return;
+
+        String id = exchange.getRequestURI().getPath().substring("/session/minecraft/profile/".length());
+        String textures = "{\"profileId\":\"" + id + "\",\"textures\":{\"SKIN\":{\"url\":\"" + getBaseUrl() + "/texture/" + id + "\"}}}";
+        String value = Base64.getEncoder().encodeToString(textures.getBytes(StandardCharsets.UTF_8));
+        String body = "{\"id\":\"" + id + "\",\"name\":\"stub\",\"properties\":[{\"name\":\"textures\",\"value\":\"" + value + "\"}]}";
+        respond(exchange, 200, "application/json", body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void handleTexture(HttpExchange exchange) throws IOException {
+        if (!admit(exchange)) return;
+
+        respond(exchange, 200, "image/png", skin);
+    }
+
+    /**
+     * Applies the simulated latency and rate limit.
+     *
+     * @return {@code true} if the request should be answered normally.
+     */
+    private boolean admit(HttpExchange exchange) throws IOException {
+        try {
+            long delay = latencyMillis + (jitterMillis > 0 ? ThreadLocalRandom.current().nextLong(jitterMillis + 1) : 0);
+            if (delay > 0) Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (requestsPerSecond <= 0) return true;
+
+        long second = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime());
+        long start = windowStart.get();
+        if (start != second && windowStart.compareAndSet(start, second)) {
+            windowRequests.set(0);
+        }
+        if (windowRequests.incrementAndGet() <= requestsPerSecond) return true;
+
+        rateLimited.increment();
+        respond(exchange, 429, "application/json", "{\"error\":\"TooManyRequestsException\"}".getBytes(StandardCharsets.UTF_8));
+        return false;
+    }
+
+    private void respond(HttpExchange exchange, int status, String contentType, byte[] body) throws IOException {
+        if (status == 200) served.increment();
+
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -4,20 +4,40 @@ import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
 import net.md_5.bungee.api.chat.BaseComponent;
 import net.md_5.bungee.api.chat.TextComponent;
-import net.minso.chathead.API.impl.CrafatarSource;
-import net.minso.chathead.API.impl.McHeadsSource;
-import net.minso.chathead.API.impl.MinotarSource;
+import net.minso.chathead.API.event.HeadChangeEvent;
+import net.minso.chathead.API.fetch.FetchEngine;
+import net.minso.chathead.API.fetch.PriorityFetchQueue;
+import net.minso.chathead.API.fetch.SchedulerFetchEngine;
+import net.minso.chathead.API.fetch.VirtualThreadFetchEngine;
 import net.minso.chathead.API.impl.MojangSource;
+import net.minso.chathead.API.impl.TextureSource;
+import net.minso.chathead.API.metrics.HeadMetrics;
+import net.minso.chathead.API.shared.FileSharedHeadStore;
+import net.minso.chathead.API.shared.MemorySharedHeadStore;
+import net.minso.chathead.API.shared.ProxySharedHeadStore;
+import net.minso.chathead.API.shared.SharedHeadStore;
 import net.minso.chathead.Main;
+import net.minso.chathead.config.Config;
 import org.bukkit.Bukkit;
 import org.bukkit.OfflinePlayer;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.Nullable;
 
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Path;
+import java.util.Collection;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
  * The {@code ChatHeadAPI} class provides methods to retrieve a Minecraft player's head representation
- * as an array of {@link BaseComponent} objects forming an 8x8 grid of pixels. Each pixel is represented
- * by a {@link BaseComponent} that contains a hexadecimal color code.
+ * as an array of {@link BaseComponent} objects forming an 8x8 grid of pixels. Each component holds a run
+ * of neighbouring pixels sharing a hexadecimal color code, so the length of the array depends on the head
+ * and on the configured {@link HeadRenderMode}, even in {@code FULL} mode: it is no longer one component
+ * per pixel and must not be indexed by pixel.
  * <p>
  * The default skin source is determined from the plugin's configuration using the key "skin-source"
  * (case-insensitive), which defaults to "MOJANG" if not specified.
@@ -37,12 +57,18 @@ public class ChatHeadAPI {
     /**
      * The default {@link SkinSource} used by this API, as determined during initialization.
      */
-    public static SkinSource defaultSource;
+    private static volatile SkinSource defaultSource;
 
     private static ChatHeadAPI instance;
 
     private final Main plugin;
+    private final HeadMetrics metrics;
+    private final FetchEngine fetchEngine;
+    private final SharedHeadStore sharedStore;
     private final HeadCache headCache;
+    private final PlayerNameIndex nameIndex;
+    private final @Nullable SkinTextureTracker skinTextures;
+    private final TextureSource textureSource = new TextureSource();
 
     /**
      * Constructs a new {@code ChatHeadAPI} instance.
@@ -51,7 +77,41 @@ public class ChatHeadAPI {
      */
     public ChatHeadAPI(Main plugin) {
         this.plugin = plugin;
-        this.headCache = new HeadCache(plugin);
+        this.metrics = new HeadMetrics();
+        this.fetchEngine = createFetchEngine(plugin);
+        this.sharedStore = createSharedStore(plugin);
+        int maxConcurrency = plugin.getPluginConfig().getFetchMaxConcurrency();
+        if (maxConcurrency <= 0) maxConcurrency = fetchEngine.getDefaultMaxConcurrency();
+        PriorityFetchQueue fetchQueue = new PriorityFetchQueue(fetchEngine, maxConcurrency, metrics);
+        // Session profiles only exist for online UUIDs.
+        this.skinTextures = Bukkit.getOnlineMode() || plugin.isBehindProxy() ? new SkinTextureTracker(new MojangSource()) : null;
+        this.headCache = new HeadCache(new BukkitPlatform(plugin, skinTextures), plugin.getPluginConfig().getHeadCacheEntryLifetimeSeconds() * 1000L,
+                metrics, fetchQueue, sharedStore);
+        this.headCache.setFallbackEnabled(plugin.getPluginConfig().getFallbackHeadEnabled());
+        if (plugin.getPluginConfig().getFallbackHeadEnabled()) {
+            fetchEngine.execute(() -> FallbackHead.loadAlex(defaultSource, plugin.getLogger()));
+        }
+        long exportPeriod = plugin.getPluginConfig().getMetricsExportIntervalSeconds() * 20L;
+        if (exportPeriod > 0) {
+            plugin.getPluginScheduler().runAsyncTimer(() -> metrics.export(plugin.getLogger()), exportPeriod, exportPeriod);
+        }
+
+        // Also renews the heads of online players, so it runs 20 times per entry lifetime (in ticks of 50 ms).
+        long cleanupPeriod = Math.max(1, headCache.getExpirationMillis() / 20 / 50);
+        plugin.getPluginScheduler().runAsyncTimer(headCache::cleanup, cleanupPeriod, cleanupPeriod);
+
+        long revalidatePeriod = plugin.getPluginConfig().getSkinChangeCheckIntervalSeconds() * 20L;
+        if (revalidatePeriod > 0) {
+            plugin.getPluginScheduler().runAsyncTimer(() -> {
+                if (skinTextures != null) {
+                    skinTextures.refresh(Bukkit.getOnlinePlayers().stream().map(Player::getUniqueId).toList());
+                }
+                headCache.revalidate();
+            }, revalidatePeriod, revalidatePeriod);
+        }
+        this.nameIndex = new PlayerNameIndex(plugin, plugin.getPluginConfig().getNameCacheTtlSeconds());
+        this.headCache.addChangeListener((uuid, overlay, previousHead, newHead) ->
+                Bukkit.getPluginManager().callEvent(new HeadChangeEvent(uuid, overlay, previousHead, newHead)));
     }
 
     /**
@@ -83,15 +143,58 @@ public class ChatHeadAPI {
             throw new IllegalStateException("PlayerHeadAPI has already been initialized.");
         }
 
-        String skinSourceConfig = plugin.getConfig().getString("skin-source", "MOJANG");
-        defaultSource = switch (skinSourceConfig.toUpperCase()) {
-            case "CRAFATAR" -> new CrafatarSource(plugin.isOfflineModeEnabled());
-            case "MINOTAR" -> new MinotarSource(plugin.isOfflineModeEnabled());
-            case "MCHEADS" -> new McHeadsSource(plugin.isOfflineModeEnabled());
-            default -> new MojangSource();
-        };
+        Config config = plugin.getPluginConfig();
+        defaultSource = SkinSourceEnum.fromName(config.getSkinSource()).createSource(plugin.isOfflineModeEnabled());
+        SkinSource.setRenderMode(HeadRenderMode.fromName(config.getHeadRenderMode()), config.getHeadPaletteMergeThreshold());
+        SkinSource.setLogger(plugin.getLogger());
 
         instance = new ChatHeadAPI(plugin);
+        plugin.getLogger().info("Fetching heads using: " + instance.fetchEngine.getName());
+    }
+
+    /**
+     * Retrieves the default {@link SkinSource} used by this API, selected with the "skin-source" configuration key.
+     *
+     * @return the default skin source, or {@code null} if the API hasn't been initialized yet.
+     */
+    public static SkinSource getDefaultSource() {
+        return defaultSource;
+    }
+
+    /**
+     * Shuts down the {@code ChatHeadAPI}, cancelling all in-flight head fetches.
+     * <p>
+     * Called when the plugin is disabled. After this call, {@link #initialize(Main)} may be called again.
+     * </p>
+     */
+    public static void shutdown() {
+        if (instance == null) return;
+
+        instance.fetchEngine.shutdown();
+        instance.sharedStore.close();
+        instance = null;
+    }
+
+    /**
+     * Retrieves the {@link HeadMetrics} collecting cache and fetch statistics of this API.
+     * <p>
+     * Use it to take a {@link net.minso.chathead.API.metrics.MetricsSnapshot} or to register a
+     * {@link net.minso.chathead.API.metrics.MetricsExporter}.
+     * </p>
+     *
+     * @return the metrics of this API.
+     */
+    public HeadMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Retrieves the {@link PlayerNameIndex} resolving player names to UUIDs without blocking.
+     *
+     * @return the name index of this API.
+     */
+    public PlayerNameIndex getNameIndex() {
+        return nameIndex;
     }
 
     /**
@@ -137,6 +240,20 @@ public class ChatHeadAPI {
         return headCache.getCachedHead(uuid, overlay, skinSource);
     }
 
+    /**
+     * Retrieves an 8x8 pixel head representation for the player identified by the specified UUID,
+     * fetching it with the given priority if it isn't cached.
+     *
+     * @param uuid       the UUID of the player whose head is to be retrieved.
+     * @param overlay    {@code true} to apply the skin overlay; {@code false} otherwise.
+     * @param skinSource the {@link SkinSource} to use for retrieving the player's skin.
+     * @param priority   the {@link FetchPriority} of the fetch, if one is needed.
+     * @return an array of {@link BaseComponent} objects representing the player's head.
+     */
+    public BaseComponent[] getHead(UUID uuid, boolean overlay, SkinSource skinSource, FetchPriority priority) {
+        return headCache.getCachedHead(uuid, null, overlay, skinSource, priority);
+    }
+
     /**
      * Retrieves an 8x8 pixel head representation for the specified {@link OfflinePlayer}.
      * <p>
@@ -147,7 +264,7 @@ public class ChatHeadAPI {
      * @return an array of {@link BaseComponent} objects representing the player's head.
      */
     public BaseComponent[] getHead(OfflinePlayer player) {
-        return headCache.getCachedHead(player, true, defaultSource);
+        return headCache.getCachedHead(player.getUniqueId(), nameOf(player), true, defaultSource, FetchPriority.NORMAL);
     }
 
     /**
@@ -162,7 +279,7 @@ public class ChatHeadAPI {
      * @return an array of {@link BaseComponent} objects representing the player's head.
      */
     public BaseComponent[] getHead(OfflinePlayer player, boolean overlay) {
-        return headCache.getCachedHead(player, overlay, defaultSource);
+        return headCache.getCachedHead(player.getUniqueId(), nameOf(player), overlay, defaultSource, FetchPriority.NORMAL);
     }
 
     /**
@@ -175,7 +292,110 @@ public class ChatHeadAPI {
      * @return an array of {@link BaseComponent} objects representing the player's head.
      */
     public BaseComponent[] getHead(OfflinePlayer player, boolean overlay, SkinSource skinSource) {
-        return headCache.getCachedHead(player, overlay, skinSource);
+        return getHead(player, overlay, skinSource, FetchPriority.NORMAL);
+    }
+
+    /**
+     * Retrieves an 8x8 pixel head representation for the specified {@link OfflinePlayer},
+     * fetching it with the given priority if it isn't cached.
+     * <p>
+     * Use {@link FetchPriority#HIGH} for a player interacting right now and {@link FetchPriority#LOW}
+     * for background displays, so the latter never hold back the former.
+     * </p>
+     *
+     * @param player     the {@link OfflinePlayer} whose head is to be retrieved.
+     * @param overlay    {@code true} to apply the skin overlay; {@code false} otherwise.
+     * @param skinSource the {@link SkinSource} to use for retrieving the player's skin.
+     * @param priority   the {@link FetchPriority} of the fetch, if one is needed.
+     * @return an array of {@link BaseComponent} objects representing the player's head.
+     */
+    public BaseComponent[] getHead(OfflinePlayer player, boolean overlay, SkinSource skinSource, FetchPriority priority) {
+        return headCache.getCachedHead(player.getUniqueId(), nameOf(player), overlay, skinSource, priority);
+    }
+
+    /**
+     * Retrieves the head of a skin texture, e.g. for an NPC or a custom skull that doesn't belong to a real player.
+     * <p>
+     * This method applies the skin overlay. See {@link #getHeadFromTexture(String, boolean, FetchPriority)}.
+     * </p>
+     *
+     * @param texture the Base64 value of a {@code textures} profile property, the URL of a texture on Mojang's
+     *                texture server, or the hash of the texture.
+     * @return an array of {@link BaseComponent} objects representing the head.
+     * @throws IllegalArgumentException if {@code texture} isn't a texture in any of these forms.
+     */
+    public BaseComponent[] getHeadFromTexture(String texture) {
+        return getHeadFromTexture(texture, true, FetchPriority.NORMAL);
+    }
+
+    /**
+     * Retrieves the head of a skin texture, e.g. for an NPC or a custom skull that doesn't belong to a real player,
+     * fetching it with the given priority if it isn't cached.
+     * <p>
+     * The texture is downloaded straight from Mojang's texture server, without any profile lookup. Heads are cached
+     * by texture hash, so every NPC wearing the same texture shares a single cached head and a single download.
+     * </p>
+     *
+     * @param texture  the Base64 value of a {@code textures} profile property, the URL of a texture on Mojang's
+     *                 texture server, or the hash of the texture.
+     * @param overlay  {@code true} to apply the skin overlay; {@code false} otherwise.
+     * @param priority the {@link FetchPriority} of the fetch, if one is needed.
+     * @return an array of {@link BaseComponent} objects representing the head.
+     * @throws IllegalArgumentException if {@code texture} isn't a texture in any of these forms.
+     */
+    public BaseComponent[] getHeadFromTexture(String texture, boolean overlay, FetchPriority priority) {
+        String hash = TextureSource.parseTextureHash(texture);
+        return headCache.getCachedHead(TextureSource.getTextureUuid(hash), hash, overlay, textureSource, priority);
+    }
+
+    /**
+     * Retrieves the head of a skin texture as a legacy-formatted string, fetching it with the given priority if it
+     * isn't cached. See {@link #getHeadFromTexture(String, boolean, FetchPriority)}.
+     *
+     * @param texture  the Base64 value of a {@code textures} profile property, the URL of a texture on Mojang's
+     *                 texture server, or the hash of the texture.
+     * @param overlay  {@code true} to apply the skin overlay; {@code false} otherwise.
+     * @param priority the {@link FetchPriority} of the fetch, if one is needed.
+     * @return a legacy-formatted string representing the head.
+     * @throws IllegalArgumentException if {@code texture} isn't a texture in any of these forms.
+     */
+    public String getHeadFromTextureAsString(String texture, boolean overlay, FetchPriority priority) {
+        String hash = TextureSource.parseTextureHash(texture);
+        return headCache.getCachedHeadAsString(TextureSource.getTextureUuid(hash), hash, overlay, textureSource, priority);
+    }
+
+    /**
+     * Fetches the heads of many players at once, e.g. for a leaderboard, a tab list or a GUI.
+     * <p>
+     * This method applies the skin overlay and uses the default skin source. See
+     * {@link #prefetch(Collection, boolean, SkinSource)}.
+     * </p>
+     *
+     * @param uuids the UUIDs of the players, most important first.
+     * @return a future completing once every head has been fetched or has failed to.
+     */
+    public CompletableFuture<Void> prefetch(Collection<UUID> uuids) {
+        return prefetch(uuids, true, defaultSource);
+    }
+
+    /**
+     * Fetches the heads of many players at once, e.g. for a leaderboard, a tab list or a GUI.
+     * <p>
+     * Duplicates and already cached heads are skipped, and the others are fetched in the given order, at most
+     * {@code prefetch-max-concurrency} at a time. Once the returned future completes, {@link #getHead} returns the
+     * fetched heads from the cache, so the whole display can be rendered at once.
+     * </p>
+     * <p>
+     * The future completes on a fetch thread, never on the main thread.
+     * </p>
+     *
+     * @param uuids      the UUIDs of the players, most important first.
+     * @param overlay    {@code true} to apply the skin overlay; {@code false} otherwise.
+     * @param skinSource the {@link SkinSource} to use for retrieving the players' skins.
+     * @return a future completing once every head has been fetched or has failed to.
+     */
+    public CompletableFuture<Void> prefetch(Collection<UUID> uuids, boolean overlay, SkinSource skinSource) {
+        return headCache.prefetch(uuids, overlay, skinSource, plugin.getPluginConfig().getPrefetchMaxConcurrency());
     }
 
     /**
@@ -193,7 +413,7 @@ public class ChatHeadAPI {
      * @return a legacy-formatted string representing the player's head.
      */
     public String getHeadAsString(UUID uuid, boolean overlay, SkinSource skinSource) {
-        return getHeadAsString(Bukkit.getOfflinePlayer(uuid), true, defaultSource);
+        return headCache.getCachedHeadAsString(uuid, null, true, defaultSource, FetchPriority.NORMAL);
     }
 
     /**
@@ -209,9 +429,40 @@ public class ChatHeadAPI {
      * @return a legacy-formatted string representing the player's head.
      */
     public String getHeadAsString(OfflinePlayer player, boolean overlay, SkinSource skinSource) {
-        return TextComponent.toLegacyText(
-                this.getHead(player, overlay, skinSource)
-        );
+        return getHeadAsString(player, overlay, skinSource, FetchPriority.NORMAL);
+    }
+
+    /**
+     * Retrieves the player's head as a legacy-formatted string using the specified {@link OfflinePlayer},
+     * fetching it with the given priority if it isn't cached.
+     *
+     * @param player     the {@link OfflinePlayer} whose head is to be retrieved.
+     * @param overlay    {@code true} to apply the skin overlay; {@code false} otherwise.
+     * @param skinSource the {@link SkinSource} to use for retrieving the player's skin.
+     * @param priority   the {@link FetchPriority} of the fetch, if one is needed.
+     * @return a legacy-formatted string representing the player's head.
+     */
+    public String getHeadAsString(OfflinePlayer player, boolean overlay, SkinSource skinSource, FetchPriority priority) {
+        return getHeadAsString(player.getUniqueId(), nameOf(player), overlay, skinSource, priority);
+    }
+
+    /**
+     * Retrieves the head of the player identified by the specified UUID as a legacy-formatted string,
+     * fetching it with the given priority if it isn't cached.
+     * <p>
+     * The legacy text is computed once per cached head, so calling this repeatedly (e.g. for placeholders
+     * refreshed every few ticks) only costs a cache lookup.
+     * </p>
+     *
+     * @param uuid       the UUID of the player whose head is to be retrieved.
+     * @param name       the name of the player if already known, {@code null} to resolve it when needed.
+     * @param overlay    {@code true} to apply the skin overlay; {@code false} otherwise.
+     * @param skinSource the {@link SkinSource} to use for retrieving the player's skin.
+     * @param priority   the {@link FetchPriority} of the fetch, if one is needed.
+     * @return a legacy-formatted string representing the player's head.
+     */
+    public String getHeadAsString(UUID uuid, @Nullable String name, boolean overlay, SkinSource skinSource, FetchPriority priority) {
+        return headCache.getCachedHeadAsString(uuid, name, overlay, skinSource, priority);
     }
 
     /**
@@ -236,4 +487,115 @@ public class ChatHeadAPI {
         return legacySerializer.deserialize(legacyHead);
     }
 
+    /**
+     * Creates the engine selected by the {@code fetch-engine} configuration key: {@code SCHEDULER} (or {@code BUKKIT})
+     * uses the server's async scheduler, {@code VIRTUAL} and {@code AUTO} use virtual threads when available.
+     */
+    private static FetchEngine createFetchEngine(Main plugin) {
+        String engine = plugin.getPluginConfig().getFetchEngine().toUpperCase();
+        if (engine.equals("SCHEDULER") || engine.equals("BUKKIT")) {
+            return new SchedulerFetchEngine(plugin.getPluginScheduler());
+        }
+
+        if (VirtualThreadFetchEngine.isSupported()) {
+            try {
+                return new VirtualThreadFetchEngine(plugin.getLogger());
+            } catch (ReflectiveOperationException e) {
+                plugin.getLogger().log(Level.WARNING, "Could not create virtual threads, falling back to the server scheduler", e);
+            }
+        } else if (engine.equals("VIRTUAL")) {
+            plugin.getLogger().warning("fetch-engine VIRTUAL requires Java 21 or newer, falling back to the server scheduler.");
+        }
+        return new SchedulerFetchEngine(plugin.getPluginScheduler());
+    }
+
+    /**
+     * Creates the store selected by the {@code shared-cache} configuration key.
+     *
+     * @return the created store, {@link SharedHeadStore#NONE} if disabled or if it couldn't be created.
+     */
+    private static SharedHeadStore createSharedStore(Main plugin) {
+        String type = plugin.getPluginConfig().getSharedCache().toUpperCase();
+        switch (type) {
+            case "FILE" -> {
+                Path directory = Path.of(plugin.getPluginConfig().getSharedCacheDirectory());
+                try {
+                    return new FileSharedHeadStore(directory, plugin.getLogger());
+                } catch (IOException e) {
+                    plugin.getLogger().log(Level.WARNING, "Could not create shared head directory " + directory, e);
+                    return SharedHeadStore.NONE;
+                }
+            }
+            case "PROXY" -> {
+                return new ProxySharedHeadStore(plugin);
+            }
+            case "MEMORY" -> {
+                return new MemorySharedHeadStore();
+            }
+            default -> {
+                return SharedHeadStore.NONE;
+            }
+        }
+    }
+
+    /**
+     * Reads the name of a player only if it is online, as reading the name of an offline player may load its data.
+     * The name of an offline player is resolved later, and only if the skin source needs it.
+     */
+    private static @Nullable String nameOf(OfflinePlayer player) {
+        return player instanceof Player online ? online.getName() : null;
+    }
+
+    /**
+     * {@link HeadCachePlatform} backed by the Bukkit server.
+     */
+    private static class BukkitPlatform implements HeadCachePlatform {
+        private final Main plugin;
+        private final @Nullable SkinTextureTracker skinTextures;
+
+        private BukkitPlatform(Main plugin, @Nullable SkinTextureTracker skinTextures) {
+            this.plugin = plugin;
+            this.skinTextures = skinTextures;
+        }
+
+        @Override
+        public boolean isEnabled() {
+            return plugin.isEnabled();
+        }
+
+        @Override
+        public boolean isOnline(UUID uuid) {
+            Player player = Bukkit.getPlayer(uuid);
+            return player != null && player.isOnline();
+        }
+
+        @Override
+        public @Nullable String getName(UUID uuid) {
+            return Bukkit.getOfflinePlayer(uuid).getName();
+        }
+
+        @Override
+        public Logger getLogger() {
+            return plugin.getLogger();
+        }
+
+        /**
+         * Identifies the texture by its hash. The skin a player currently wears is looked up on Mojang's session
+         * server in the background by the {@link SkinTextureTracker}, as the player's login profile never changes
+         * during the session. Until a player was looked up, or on offline-mode servers, the skin of the login
+         * profile is used, so skins changed during the session go unnoticed there.
+         */
+        @Override
+        public @Nullable String getTextureId(UUID uuid) {
+            String textureHash = skinTextures != null ? skinTextures.getTextureHash(uuid) : null;
+            if (textureHash != null) return textureHash;
+
+            Player player = Bukkit.getPlayer(uuid);
+            if (player == null) return null;
+
+            URL skin = player.getPlayerProfile().getTextures().getSkin();
+            return skin != null ? SkinTextureTracker.textureHash(skin.toString()) : null;
+        }
+    }
+
 }
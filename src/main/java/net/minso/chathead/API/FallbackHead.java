@@ -0,0 +1,141 @@
+package net.minso.chathead.API;
+
+import net.md_5.bungee.api.chat.BaseComponent;
+import net.md_5.bungee.api.chat.TextComponent;
+
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The heads of the default skins, served while a player's real head is fetched.
+ * <p>
+ * Like clients before 1.19.3, the default skin is chosen from the UUID: Alex if its hash code is odd, Steve otherwise.
+ * Steve's face is bundled and rendered once, so serving it costs no I/O at all. Alex's face is rendered from the
+ * vanilla Alex texture, downloaded once by {@link #loadAlex}; until then, players with the Alex default skin get
+ * Steve's head.
+ * </p>
+ */
+public enum FallbackHead {
+
+    /**
+     * The face of the default Steve skin.
+     */
+    STEVE(new String[]{
+            "#2F200D", "#2B1E0D", "#2F1F0F", "#281C0B", "#241808", "#261A0A", "#2B1E0D", "#2A1D0D",
+            "#2F1F0F", "#2F1F0F", "#2F1F0F", "#2F1F0F", "#2F1F0F", "#2F1F0F", "#2F1F0F", "#2F1F0F",
+            "#2F1F0F", "#B6896C", "#BD8E72", "#C69680", "#BD8B72", "#BD8E74", "#AC765A", "#342512",
+            "#AA7D66", "#B4846D", "#AA7D66", "#AD806D", "#9C725C", "#BB8972", "#9C694C", "#9C694C",
+            "#B4846D", "#FFFFFF", "#523D89", "#B57B67", "#BB8972", "#523D89", "#FFFFFF", "#AA7D66",
+            "#9C6346", "#B37B62", "#B78272", "#6A4030", "#6A4030", "#BE886C", "#A26A47", "#805334",
+            "#905E43", "#965F40", "#45220E", "#45220E", "#45220E", "#45220E", "#8F5E3E", "#815539",
+            "#6F452C", "#6D432A", "#45220E", "#45220E", "#45220E", "#45220E", "#7A4E33", "#83553B"
+    }),
+
+    /**
+     * The face of the default Alex skin, rendered from {@link #ALEX_TEXTURE_URL} once loaded.
+     */
+    ALEX(null);
+
+    /**
+     * The vanilla texture of the default Alex skin.
+     */
+    public static final String ALEX_TEXTURE_URL =
+            "http://textures.minecraft.net/texture/3b60a1f6d562f52aaebbf1434f1de147933a3affe0e764fa49ea057536623cd3";
+
+    /**
+     * The rendered head, {@code null} until its pixels are known.
+     */
+    private volatile Rendered rendered;
+
+    /**
+     * @param rows the 64 pixels of the face, row by row from the top left corner, {@code null} if they are loaded later.
+     */
+    FallbackHead(String[] rows) {
+        if (rows == null) return;
+
+        // Rendering expects the pixels column by column.
+        String[] columns = new String[64];
+        for (int i = 0; i < 64; i++) {
+            columns[(i % 8) * 8 + i / 8] = rows[i];
+        }
+        this.rendered = Rendered.of(columns);
+    }
+
+    /**
+     * @return the rendered head, or Steve's head if this one isn't loaded yet. Shared by every caller; must not
+     * be modified.
+     */
+    public BaseComponent[] getHead() {
+        return getRendered().head();
+    }
+
+    /**
+     * @return the rendered head in legacy text format, or Steve's head if this one isn't loaded yet.
+     */
+    public String getLegacyText() {
+        return getRendered().legacyText();
+    }
+
+    private Rendered getRendered() {
+        Rendered current = rendered;
+        return current != null ? current : STEVE.rendered;
+    }
+
+    /**
+     * Chooses the default skin of a player the way clients before 1.19.3 do.
+     *
+     * @param uuid the UUID of the player.
+     * @return the default skin of the player.
+     */
+    public static FallbackHead of(UUID uuid) {
+        return (uuid.hashCode() & 1) == 1 ? ALEX : STEVE;
+    }
+
+    /**
+     * Checks whether a head is one of the fallback heads, rather than a fetched head.
+     *
+     * @param head a head returned by the cache.
+     * @return {@code true} if the head is a fallback head.
+     */
+    public static boolean isFallback(BaseComponent[] head) {
+        for (FallbackHead fallback : values()) {
+            if (head == fallback.getHead()) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Downloads the vanilla Alex texture and renders {@link #ALEX} from it. Blocks while downloading, so it must be
+     * called off the main thread, once when the cache starts.
+     *
+     * @param source the source whose {@link SkinSource#getPixelColorsFromSkin} extracts the face.
+     * @param logger the logger warned if the texture couldn't be loaded.
+     */
+    public static void loadAlex(SkinSource source, Logger logger) {
+        if (ALEX.rendered != null) return;
+
+        try {
+            String[] columns = source.getPixelColorsFromSkin(ALEX_TEXTURE_URL, true);
+            if (Arrays.asList(columns).contains(null)) {
+                logger.warning("Could not download the Alex skin, players with the Alex default skin get the Steve head.");
+                return;
+            }
+            ALEX.rendered = Rendered.of(columns);
+        } catch (RuntimeException e) {
+            logger.log(Level.WARNING, "Could not render the Alex skin, players with the Alex default skin get the Steve head.", e);
+        }
+    }
+
+    /**
+     * A head rendered once, published at once through a single field.
+     */
+    private record Rendered(BaseComponent[] head, String legacyText) {
+
+        static Rendered of(String[] columns) {
+            BaseComponent[] head = SkinSource.render(columns);
+            return new Rendered(head, TextComponent.toLegacyText(head));
+        }
+    }
+}
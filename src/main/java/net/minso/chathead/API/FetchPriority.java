@@ -0,0 +1,21 @@
+package net.minso.chathead.API;
+
+/**
+ * The priority of a head fetch. When fetches queue up, higher priorities are started first.
+ */
+public enum FetchPriority {
+    /**
+     * A player is interacting right now: logging in, chatting or dying.
+     */
+    HIGH,
+
+    /**
+     * Messages broadcast on behalf of a player, such as join and quit messages. The default priority.
+     */
+    NORMAL,
+
+    /**
+     * Background lookups: placeholders, prefetch batches and skin change revalidations.
+     */
+    LOW
+}
@@ -1,16 +1,30 @@
 package net.minso.chathead.API;
 
 import net.md_5.bungee.api.chat.BaseComponent;
-import net.minso.chathead.Main;
-import org.bukkit.Bukkit;
-import org.bukkit.OfflinePlayer;
-import org.bukkit.entity.Player;
-import org.bukkit.plugin.java.JavaPlugin;
-import org.bukkit.scheduler.BukkitTask;
+import net.md_5.bungee.api.chat.TextComponent;
+import net.md_5.bungee.chat.ComponentSerializer;
+import net.minso.chathead.API.fetch.PriorityFetchQueue;
+import net.minso.chathead.API.jfr.HeadFetchEvent;
+import net.minso.chathead.API.jfr.HeadScheduleEvent;
+import net.minso.chathead.API.jfr.HeadTrace;
+import net.minso.chathead.API.metrics.HeadMetrics;
+import net.minso.chathead.API.shared.SharedHeadStore;
+import org.jetbrains.annotations.Nullable;
 
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
 
 /**
  * The {@code HeadCache} class is responsible for caching Minecraft player head representations
@@ -20,52 +34,123 @@ import java.util.concurrent.ConcurrentHashMap;
  * The cache supports both synchronous retrieval of cached data and asynchronous refreshing of
  * expired or missing entries. A scheduled task is used to periodically remove expired cache entries.
  * </p>
+ * <p>
+ * Fetches go through a {@link PriorityFetchQueue}: each lookup carries a {@link FetchPriority}, and a pending fetch
+ * is promoted when a more urgent lookup asks for the same head.
+ * </p>
+ * <p>
+ * Missing entries are first looked up in an optional {@link SharedHeadStore} shared with other servers;
+ * heads fetched from a {@link SkinSource} are published to it.
+ * </p>
+ * <p>
+ * The cache doesn't depend on the Bukkit API: everything it needs from the server is provided by a
+ * {@link HeadCachePlatform}, so the same cache runs on Bukkit servers and on proxies.
+ * </p>
+ * <p>
+ * Heads of online players don't expire: {@link #cleanup()} renews them, and {@link #revalidate()} compares the
+ * texture each online player currently wears with the one their head was rendered from, fetching the head again only
+ * when it differs. Registered {@link HeadChangeListener}s are notified whenever a refreshed head differs from the one
+ * it replaces. Lookups themselves only read the slot map: they neither call the {@link HeadCachePlatform} nor
+ * allocate a key.
+ * </p>
+ * <p>
+ * Each head has a single slot whose state is one immutable {@code SlotState}, replaced atomically with
+ * compare-and-set operations of the slot map:
+ * </p>
+ * <pre>
+ *   absent ──lookup──▶ Loading ──fetched──▶ Ready ──expired──▶ (stale) Ready ──lookup──▶ Loading
+ *                         │                                                  ▲
+ *                         └──failed──▶ Failed ──retry delay elapsed, lookup──┘
+ * </pre>
+ * <p>
+ * Only the thread winning the transition into {@code Loading} submits a fetch, and only that fetch moves the slot out
+ * of it, so no fetch is ever duplicated or lost. A {@code Ready} head expired by time is stale: it is still served
+ * while it is fetched again. A failed fetch keeps serving the previous head, if any, and is only retried after
+ * {@value #FAILURE_RETRY_MILLIS} ms, so a failing source isn't hit on every lookup. Timestamps live in the
+ * immutable states, so renewing one replaces the state and can't be torn or lost.
+ * </p>
  */
 public class HeadCache {
 
     /**
-     * The {@link Main} instance associated with this cache.
+     * The {@link HeadCachePlatform} this cache runs on.
      */
-    private final Main plugin;
+    private final HeadCachePlatform platform;
 
     /**
      * The expiration time for cache entries in milliseconds (5 minutes).
      */
     private final long CACHE_EXPIRATION;
+
+    /**
+     * How long a failed fetch is not retried, in milliseconds.
+     */
+    private static final long FAILURE_RETRY_MILLIS = 10_000;
+
+    /**
+     * The state of every head slot, in one map per combination of skin source and overlay flag (see
+     * {@link #slotsOf}) keyed by the player's UUID, so a lookup builds no key. A missing key is an absent slot.
+     */
+    private final Map<UUID, SlotState>[] slots;
+
+    /**
+     * The number of slots currently {@code Loading}.
+     */
+    private final AtomicInteger loadingCount = new AtomicInteger();
+
+    /**
+     * The {@link HeadMetrics} receiving hit, miss and fetch statistics of this cache.
+     */
+    private final HeadMetrics metrics;
+
+    /**
+     * The {@link PriorityFetchQueue} running the asynchronous head fetches.
+     */
+    private final PriorityFetchQueue fetchQueue;
+
     /**
-     * A map storing cached head representations, keyed by a unique combination of the player's UUID and overlay flag.
+     * The {@link SharedHeadStore} consulted before going upstream, and published to after.
      */
-    private final Map<String, CachedHead> cache = new ConcurrentHashMap<>();
+    private final SharedHeadStore sharedStore;
 
     /**
-     * A map used to track pending asynchronous head requests to avoid duplicate fetches.
+     * The listeners notified when a cached head is replaced by a different one.
      */
-    private final Map<String, Boolean> pendingRequests = new ConcurrentHashMap<>();
+    private final List<HeadChangeListener> changeListeners = new CopyOnWriteArrayList<>();
 
     /**
-     * The scheduled task responsible for cleaning up expired cache entries.
+     * Whether a {@link FallbackHead} is returned for heads that aren't cached yet.
      */
-    private BukkitTask cacheCleanupTask;
+    private volatile boolean fallbackEnabled = true;
 
     /**
-     * Constructs a new {@code HeadCache} instance using the specified {@link JavaPlugin}.
+     * Constructs a new {@code HeadCache} instance.
      * <p>
-     * Upon creation, this instance immediately starts an asynchronous cleanup task to remove
-     * expired cache entries.
+     * Expired entries are removed by {@link #cleanup()}, which the platform is expected to call periodically.
      * </p>
      *
-     * @param plugin the {@link JavaPlugin} instance associated with this cache.
+     * @param platform         the {@link HeadCachePlatform} this cache runs on.
+     * @param expirationMillis the lifetime of a cache entry in milliseconds.
+     * @param metrics          the {@link HeadMetrics} to record cache and fetch statistics into.
+     * @param fetchQueue       the {@link PriorityFetchQueue} to run asynchronous head fetches on.
+     * @param sharedStore      the {@link SharedHeadStore} shared with other servers, {@link SharedHeadStore#NONE} if none.
      */
-    public HeadCache(Main plugin) {
-        this.plugin = plugin;
-        this.CACHE_EXPIRATION = plugin.getConfig().getInt("head-cache-entry-lifetime-seconds", 300) * 1000L;
-        startCacheCleanupTask();
+    public HeadCache(HeadCachePlatform platform, long expirationMillis, HeadMetrics metrics, PriorityFetchQueue fetchQueue, SharedHeadStore sharedStore) {
+        this.platform = platform;
+        this.metrics = metrics;
+        this.fetchQueue = fetchQueue;
+        this.sharedStore = sharedStore;
+        this.CACHE_EXPIRATION = expirationMillis;
+        this.slots = newSlotMaps();
+        metrics.bindGauges(loadingCount::get, this::getEntryCount, this::getEstimatedSize);
     }
 
     /**
      * Retrieves the cached head representation for the player identified by the specified UUID.
      * <p>
-     * This method delegates to {@link #getCachedHead(OfflinePlayer, boolean, SkinSource)}.
+     * This method delegates to {@link #getCachedHead(UUID, String, boolean, SkinSource, FetchPriority)} with
+     * {@link FetchPriority#NORMAL}; if the source needs the player's name, it is resolved through the
+     * {@link HeadCachePlatform} inside the asynchronous fetch, never on the calling thread.
      * </p>
      *
      * @param uuid       the UUID of the player.
@@ -74,107 +159,546 @@ public class HeadCache {
      * @return an array of {@link BaseComponent} representing the player's head.
      */
     public BaseComponent[] getCachedHead(UUID uuid, boolean overlay, SkinSource skinSource) {
-        return getCachedHead(Bukkit.getOfflinePlayer(uuid), overlay, skinSource);
+        return getCachedHead(uuid, null, overlay, skinSource, FetchPriority.NORMAL);
     }
 
     /**
-     * Retrieves the cached head representation for the specified {@link OfflinePlayer}.
+     * Retrieves the cached head representation for the specified player.
      * <p>
-     * If a valid (i.e., not expired) cached head is available, it is returned immediately.
+     * If a valid (i.e., not expired) cached head is available, it is returned immediately, without any call to the
+     * {@link HeadCachePlatform}.
      * Otherwise, an asynchronous task is scheduled to fetch a new head representation, and the
-     * last cached version (if any) is returned. If no cached version exists, an empty array is returned.
+     * last cached version (if any) is returned. If no cached version exists, the player's {@link FallbackHead}
+     * is returned, or an empty array if fallback heads are disabled.
      * </p>
      *
-     * @param player     the {@link OfflinePlayer} whose head is to be retrieved.
+     * @param uuid       the UUID of the player.
+     * @param name       the name of the player if already known, {@code null} to resolve it when needed.
      * @param overlay    {@code true} if the skin overlay should be applied; {@code false} otherwise.
      * @param skinSource the {@link SkinSource} to use for fetching the player's head.
+     * @param priority   the priority of the fetch, if one is needed.
      * @return an array of {@link BaseComponent} representing the player's head.
      */
-    public BaseComponent[] getCachedHead(OfflinePlayer player, boolean overlay, SkinSource skinSource) {
-        UUID uuid = player.getUniqueId();
-        String cacheKey = getCacheKey(uuid, overlay);
-        CachedHead cachedHead = cache.get(cacheKey);
-        if (cachedHead != null && !isExpired(cachedHead)) {
-            return cachedHead.getHead();
+    public BaseComponent[] getCachedHead(UUID uuid, @Nullable String name, boolean overlay, SkinSource skinSource, FetchPriority priority) {
+        CachedHead cachedHead = lookup(uuid, name, overlay, skinSource, priority);
+        if (cachedHead != null) return cachedHead.getHead();
+        return fallbackEnabled ? FallbackHead.of(uuid).getHead() : new BaseComponent[]{};
+    }
+
+    /**
+     * Retrieves the cached head representation for the specified player as a legacy-formatted string.
+     * <p>
+     * Behaves like {@link #getCachedHead(UUID, String, boolean, SkinSource, FetchPriority)}, but the legacy text
+     * is computed once per cached head and reused by every later call until the head is replaced, which makes
+     * this the cheapest way to serve heads resolved over and over, such as placeholders.
+     * </p>
+     *
+     * @param uuid       the UUID of the player.
+     * @param name       the name of the player if already known, {@code null} to resolve it when needed.
+     * @param overlay    {@code true} if the skin overlay should be applied; {@code false} otherwise.
+     * @param skinSource the {@link SkinSource} to use for fetching the player's head.
+     * @param priority   the priority of the fetch, if one is needed.
+     * @return the head in legacy text format, or an empty string if no head is available.
+     */
+    public String getCachedHeadAsString(UUID uuid, @Nullable String name, boolean overlay, SkinSource skinSource, FetchPriority priority) {
+        CachedHead cachedHead = lookup(uuid, name, overlay, skinSource, priority);
+        if (cachedHead != null) return cachedHead.getLegacyText();
+        return fallbackEnabled ? FallbackHead.of(uuid).getLegacyText() : "";
+    }
+
+    /**
+     * Looks up the cached entry of a head, scheduling a fetch if it is missing or expired.
+     *
+     * @return the cached entry, possibly expired, or {@code null} if none exists yet.
+     */
+    private @Nullable CachedHead lookup(UUID uuid, @Nullable String name, boolean overlay, SkinSource skinSource, FetchPriority priority) {
+        SlotState state = slotsOf(overlay, skinSource.getSkinSource()).get(uuid);
+        if (state instanceof Ready ready && !isTimeExpired(ready)) {
+            metrics.recordHit();
+            return ready.head();
         }
 
         // Use the last cached version (even if expired) if available.
-        BaseComponent[] lastHead = cachedHead != null ? cachedHead.getHead() : new BaseComponent[]{};
-
-        // Only schedule a new asynchronous fetch if one isn't already pending.
-        if (pendingRequests.putIfAbsent(cacheKey, true) == null) {
-            Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
-                BaseComponent[] head = skinSource.getHead(player, overlay);
-                if (head != null && head.length > 0 && plugin.isEnabled()) {
-                    cache.put(cacheKey, new CachedHead(uuid, head, overlay, System.currentTimeMillis()));
+        CachedHead cachedHead = state != null ? state.head() : null;
+        if (cachedHead != null) {
+            metrics.recordStaleHit();
+        } else {
+            metrics.recordMiss();
+        }
+
+        scheduleFetch(uuid, name, overlay, skinSource, FetchReason.LOOKUP, priority);
+        return cachedHead;
+    }
+
+    /**
+     * Schedules an asynchronous fetch of a head by moving its slot to {@code Loading}, unless the slot is already
+     * loading, in which case the pending fetch is promoted to {@code priority} if it hasn't started yet. Nothing is
+     * fetched while a failed fetch waits for its retry delay, nor, except for revalidations, if the head is fresh.
+     *
+     * @param uuid        the UUID of the player.
+     * @param name        the name of the player if already known, {@code null} to resolve it when needed.
+     * @param overlay     {@code true} if the skin overlay should be applied; {@code false} otherwise.
+     * @param skinSource  the {@link SkinSource} to fetch the head from.
+     * @param reason      why the head is fetched.
+     * @param priority    the priority of the fetch.
+     * @return a future completing once the fetch has finished, successfully or not.
+     */
+    private CompletableFuture<Void> scheduleFetch(UUID uuid, @Nullable String name, boolean overlay,
+                                                  SkinSource skinSource, FetchReason reason, FetchPriority priority) {
+        Map<UUID, SlotState> slotMap = slotsOf(overlay, skinSource.getSkinSource());
+        Loading loading;
+        while (true) {
+            SlotState state = slotMap.get(uuid);
+            if (state instanceof Loading pending) {
+                pending.fetch().promote(priority);
+                return pending.fetch().completion;
+            }
+            if (state instanceof Failed failed && System.currentTimeMillis() < failed.retryAt()) {
+                return CompletableFuture.completedFuture(null);
+            }
+            if (state instanceof Ready ready && reason != FetchReason.REVALIDATION && !isTimeExpired(ready)) {
+                return CompletableFuture.completedFuture(null);
+            }
+
+            Ready previous = state instanceof Ready ready ? ready : state instanceof Failed failed ? failed.previous() : null;
+            loading = new Loading(previous, new PendingFetch());
+            // Only the thread winning the transition submits the fetch; the others retry and join it.
+            if (state == null ? slotMap.putIfAbsent(uuid, loading) == null : slotMap.replace(uuid, state, loading)) break;
+        }
+        loadingCount.incrementAndGet();
+        Loading owned = loading;
+        CompletableFuture<Void> completion = owned.fetch().completion;
+
+        HeadScheduleEvent scheduleEvent = HeadTrace.beginSchedule(uuid, skinSource.getSkinSource());
+        try {
+            owned.fetch().ticket = fetchQueue.submit(priority, () -> {
+                HeadTrace.endSchedule(scheduleEvent);
+                Ready fetched = null;
+                try {
+                    // Read before fetching, so a skin change during the fetch is detected by the next revalidation.
+                    String textureId = platform.isOnline(uuid) ? platform.getTextureId(uuid) : null;
+
+                    // A changed texture must not be answered with the previous head from the shared store.
+                    String cacheKey = getCacheKey(uuid, overlay, skinSource.getSkinSource());
+                    BaseComponent[] head = reason == FetchReason.REVALIDATION ? null : sharedStore.load(cacheKey, CACHE_EXPIRATION);
+                    if (head != null) {
+                        metrics.recordSharedHit();
+                    } else {
+                        // Only sources requesting heads by name need it resolved, which may touch the player data.
+                        String playerName = name != null || !skinSource.needsName() ? name : platform.getName(uuid);
+                        head = reason == FetchReason.PREFETCH
+                                ? SkinSource.withDecodePool(ForkJoinPool.commonPool(), () -> fetchHead(uuid, playerName, overlay, skinSource))
+                                : fetchHead(uuid, playerName, overlay, skinSource);
+                        if (head != null) sharedStore.store(cacheKey, head);
+                    }
+                    if (head != null && platform.isEnabled()) {
+                        fetched = new Ready(new CachedHead(uuid, head, overlay, skinSource, textureId), System.currentTimeMillis());
+                    }
+                } finally {
+                    complete(slotMap, uuid, owned, fetched);
                 }
-                pendingRequests.remove(cacheKey);
+            }, () -> {
+                // The engine has been shut down, the plugin is disabling.
+                complete(slotMap, uuid, owned, null);
             });
+        } catch (RuntimeException e) {
+            // E.g. the server scheduler refusing tasks while the plugin disables: the slot must not stay loading.
+            complete(slotMap, uuid, owned, null);
+            platform.getLogger().log(Level.WARNING, "Could not schedule the fetch of the head of " + uuid, e);
+        } catch (Error e) {
+            complete(slotMap, uuid, owned, null);
+            throw e;
         }
+        return completion;
+    }
 
-        return lastHead;
+    /**
+     * Moves a slot out of the {@code Loading} state owned by a finished fetch. Only the first call for a given
+     * {@code Loading} state has any effect.
+     *
+     * @param slotMap  the slot map holding the head.
+     * @param uuid     the UUID of the player.
+     * @param loading  the state of the slot while the fetch ran.
+     * @param fetched  the fetched head, or {@code null} if the fetch failed.
+     */
+    private void complete(Map<UUID, SlotState> slotMap, UUID uuid, Loading loading, @Nullable Ready fetched) {
+        SlotState next = fetched != null ? fetched : new Failed(loading.previous(), System.currentTimeMillis() + FAILURE_RETRY_MILLIS);
+        // Nothing else moves a slot out of Loading, so this only fails if the fetch was already completed.
+        if (!slotMap.replace(uuid, loading, next)) return;
+        loadingCount.decrementAndGet();
+        loading.fetch().completion.complete(null);
+
+        Ready previous = loading.previous();
+        if (fetched != null && previous != null && !changeListeners.isEmpty() && isDifferent(previous.head().getHead(), fetched.head().getHead())) {
+            notifyChange(fetched.head().getUuid(), fetched.head().hasOverlay(), previous.head().getHead(), fetched.head().getHead());
+        }
     }
 
     /**
-     * Determines whether the specified {@link CachedHead} entry has expired.
+     * Fetches the heads of many players at once, e.g. for a leaderboard or a tab list.
      * <p>
-     * If the head is "time-expired" but the player is still online,
-     * the timestamp is refreshed and the entry is treated as NOT expired.
+     * Duplicates and heads that are already cached are skipped. The remaining heads are fetched in the given order,
+     * at most {@code maxConcurrency} at a time, so a large batch doesn't flood the skin source; fetches already
+     * pending for the same heads are joined instead of repeated. Downloaded skins are decoded in parallel on the
+     * common {@link ForkJoinPool}.
      * </p>
      *
-     * @param cachedHead the cached head entry to check.
-     * @return {@code true} if the cached head has expired, and the player is offline;
-     * {@code false} if it is still valid OR renewed for an online player.
+     * @param uuids          the UUIDs of the players, most important first.
+     * @param overlay        {@code true} if the skin overlay should be applied; {@code false} otherwise.
+     * @param skinSource     the {@link SkinSource} to fetch the heads from.
+     * @param maxConcurrency the maximum number of heads of this batch fetched at the same time.
+     * @return a future completing once every head of the batch has been fetched or has failed to.
+     */
+    public CompletableFuture<Void> prefetch(Collection<UUID> uuids, boolean overlay, SkinSource skinSource, int maxConcurrency) {
+        Queue<UUID> queue = new ConcurrentLinkedQueue<>(new LinkedHashSet<>(uuids));
+        int workers = Math.max(1, Math.min(maxConcurrency, queue.size()));
+
+        CompletableFuture<?>[] chains = new CompletableFuture<?>[workers];
+        for (int i = 0; i < workers; i++) {
+            CompletableFuture<Void> chain = new CompletableFuture<>();
+            prefetchNext(queue, overlay, skinSource, chain);
+            chains[i] = chain;
+        }
+        return CompletableFuture.allOf(chains);
+    }
+
+    /**
+     * Fetches the next uncached head of a prefetch batch, then continues with the following one once done.
+     */
+    private void prefetchNext(Queue<UUID> queue, boolean overlay, SkinSource skinSource, CompletableFuture<Void> chain) {
+        UUID uuid;
+        while ((uuid = queue.poll()) != null) {
+            SlotState state = slotsOf(overlay, skinSource.getSkinSource()).get(uuid);
+            if (!(state instanceof Ready ready && !isTimeExpired(ready))) {
+                scheduleFetch(uuid, null, overlay, skinSource, FetchReason.PREFETCH, FetchPriority.LOW)
+                        .whenComplete((result, error) -> prefetchNext(queue, overlay, skinSource, chain));
+                return;
+            }
+        }
+        chain.complete(null);
+    }
+
+    /**
+     * Compares two heads by their serialized form.
+     */
+    private static boolean isDifferent(BaseComponent[] previous, BaseComponent[] current) {
+        return !ComponentSerializer.toString(previous).equals(ComponentSerializer.toString(current));
+    }
+
+    private void notifyChange(UUID uuid, boolean overlay, BaseComponent[] previous, BaseComponent[] current) {
+        for (HeadChangeListener listener : changeListeners) {
+            try {
+                listener.onHeadChange(uuid, overlay, previous, current);
+            } catch (RuntimeException e) {
+                // A failing listener must neither affect the cache nor the other listeners.
+                platform.getLogger().log(Level.WARNING, "A head change listener failed", e);
+            }
+        }
+    }
+
+    /**
+     * Sets whether a {@link FallbackHead} is returned for heads that aren't cached yet, instead of an empty array.
+     * Enabled by default.
+     *
+     * @param fallbackEnabled {@code true} to return fallback heads.
+     */
+    public void setFallbackEnabled(boolean fallbackEnabled) {
+        this.fallbackEnabled = fallbackEnabled;
+    }
+
+    /**
+     * Registers a listener notified whenever a cached head is replaced by a different one.
+     * <p>
+     * Listeners are called from the fetch thread that produced the new head.
+     * </p>
+     *
+     * @param listener the listener to register.
+     */
+    public void addChangeListener(HeadChangeListener listener) {
+        changeListeners.add(listener);
+    }
+
+    /**
+     * Unregisters a previously registered change listener.
+     *
+     * @param listener the listener to remove.
+     */
+    public void removeChangeListener(HeadChangeListener listener) {
+        changeListeners.remove(listener);
+    }
+
+    /**
+     * Fetches a head from the given {@link SkinSource}, recording its latency and outcome.
+     *
+     * @param uuid       the UUID of the player whose head is to be fetched.
+     * @param name       the name of the player, {@code null} if unknown.
+     * @param overlay    {@code true} if the skin overlay should be applied; {@code false} otherwise.
+     * @param skinSource the {@link SkinSource} to fetch the head from.
+     * @return the fetched head, or {@code null} if the fetch failed or returned nothing.
+     */
+    private BaseComponent[] fetchHead(UUID uuid, @Nullable String name, boolean overlay, SkinSource skinSource) {
+        HeadFetchEvent fetchEvent = HeadTrace.beginFetch(uuid, skinSource.getSkinSource(), overlay);
+        String outcome = HeadTrace.SUCCESS;
+        long start = System.nanoTime();
+        try {
+            BaseComponent[] head = skinSource.getHead(uuid, name, overlay);
+            if (head == null || head.length == 0) {
+                outcome = "EmptyHead";
+                metrics.recordFailure(skinSource.getSkinSource(), outcome, System.nanoTime() - start);
+                return null;
+            }
+            metrics.recordFetch(skinSource.getSkinSource(), System.nanoTime() - start);
+            return head;
+        } catch (RuntimeException e) {
+            outcome = e.getClass().getSimpleName();
+            metrics.recordFailure(skinSource.getSkinSource(), outcome, System.nanoTime() - start);
+            return null;
+        } finally {
+            HeadTrace.endFetch(fetchEvent, outcome);
+        }
+    }
+
+    /**
+     * Counts the cached heads, including stale heads and the heads of loading and failed slots.
+     *
+     * @return the number of cached heads.
+     */
+    private long getEntryCount() {
+        long count = 0;
+        for (Map<UUID, SlotState> slotMap : slots) {
+            for (SlotState state : slotMap.values()) {
+                if (state.head() != null) count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Estimates the memory retained by all cached heads.
+     *
+     * @return the approximate size of the cached heads in bytes.
      */
-    private boolean isExpired(CachedHead cachedHead) {
-        long headAge = System.currentTimeMillis() - cachedHead.getTimestamp();
+    private long getEstimatedSize() {
+        long size = 0;
+        for (Map<UUID, SlotState> slotMap : slots) {
+            for (SlotState state : slotMap.values()) {
+                CachedHead cachedHead = state.head();
+                if (cachedHead != null) size += cachedHead.getEstimatedSize();
+            }
+        }
+        return size;
+    }
 
-        // Checks if the Head is not expired.
-        if (headAge <= CACHE_EXPIRATION) return false;
+    private boolean isTimeExpired(Ready ready) {
+        return System.currentTimeMillis() - ready.timestamp() > CACHE_EXPIRATION;
+    }
 
-        // The Head is expired, Checks to see if the player is still online and renews the timestamp for the Head.
-        Player player = Bukkit.getPlayer(cachedHead.getUuid());
-        if (player != null && player.isOnline()) {
-            cachedHead.refreshTimestamp();
-            return false;
+    /**
+     * Renews the heads of online players still wearing the texture their head was rendered from, and removes expired
+     * cache entries and failed slots whose retry delay elapsed.
+     * <p>
+     * Lookups never ask the platform whether a player is online, so this is what keeps the heads of online players
+     * from expiring: it is meant to be called from an asynchronous task owned by the platform, several times per
+     * entry lifetime.
+     * </p>
+     */
+    public void cleanup() {
+        long now = System.currentTimeMillis();
+        for (Map<UUID, SlotState> slotMap : slots) {
+            // Replacing or removing only the state that was inspected never overrides a slot that moved on meanwhile.
+            slotMap.forEach((uuid, state) -> {
+                if (state instanceof Ready ready && platform.isOnline(uuid)) {
+                    // A changed texture is left to revalidate(); the head is kept so it can be replaced and compared.
+                    if (!hasTextureChanged(ready.head())) slotMap.replace(uuid, ready, new Ready(ready.head(), now));
+                } else if (isRemovable(state, now)) {
+                    slotMap.remove(uuid, state);
+                }
+            });
         }
+    }
 
-        // Return true if the head is expired and the player isn't online.
-        return true;
+    private boolean isRemovable(SlotState state, long now) {
+        if (state instanceof Ready ready) {
+            return isTimeExpired(ready) && !platform.isOnline(ready.head().getUuid());
+        }
+        if (state instanceof Failed failed) {
+            return now >= failed.retryAt() && (failed.previous() == null || isRemovable(failed.previous(), now));
+        }
+        return false;
     }
 
     /**
-     * Starts an asynchronous task that periodically cleans up expired cache entries.
+     * Fetches again the heads of online players whose texture changed since their head was rendered.
      * <p>
-     * If a cleanup task is already running, it is cancelled before starting a new one.
+     * Only compares the texture identifiers provided by the {@link HeadCachePlatform}, which costs no network
+     * request; meant to be called periodically from an asynchronous task owned by the platform.
      * </p>
      */
-    private void startCacheCleanupTask() {
-        if (cacheCleanupTask != null) {
-            cacheCleanupTask.cancel();
+    public void revalidate() {
+        for (Map<UUID, SlotState> slotMap : slots) {
+            slotMap.forEach((uuid, state) -> {
+                if (state instanceof Ready ready && hasTextureChanged(ready.head())) {
+                    CachedHead cachedHead = ready.head();
+                    scheduleFetch(uuid, null, cachedHead.hasOverlay(), cachedHead.getSkinSource(), FetchReason.REVALIDATION, FetchPriority.LOW);
+                }
+            });
+        }
+    }
+
+    /**
+     * Determines whether an online player currently wears another texture than the one their head was rendered from.
+     *
+     * @param cachedHead the cached head entry to check.
+     * @return {@code true} if both textures are known and differ.
+     */
+    private boolean hasTextureChanged(CachedHead cachedHead) {
+        if (cachedHead.getTextureId() == null || !platform.isOnline(cachedHead.getUuid())) return false;
+
+        String current = platform.getTextureId(cachedHead.getUuid());
+        return current != null && !Objects.equals(current, cachedHead.getTextureId());
+    }
+
+    /**
+     * Retrieves the lifetime of a cache entry.
+     *
+     * @return the expiration time in milliseconds.
+     */
+    public long getExpirationMillis() {
+        return CACHE_EXPIRATION;
+    }
+
+    /**
+     * Retrieves the slot map of the heads fetched from a skin source with or without overlay.
+     *
+     * @param overlay    {@code true} if the skin overlay is applied; {@code false} otherwise.
+     * @param skinSource the source the heads are fetched from.
+     * @return the slot map, keyed by the UUID of the player.
+     */
+    private Map<UUID, SlotState> slotsOf(boolean overlay, SkinSourceEnum skinSource) {
+        return slots[skinSource.ordinal() * 2 + (overlay ? 1 : 0)];
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<UUID, SlotState>[] newSlotMaps() {
+        Map<UUID, SlotState>[] slotMaps = new Map[SkinSourceEnum.values().length * 2];
+        for (int i = 0; i < slotMaps.length; i++) {
+            slotMaps[i] = new ConcurrentHashMap<>();
         }
+        return slotMaps;
+    }
+
+    /**
+     * Generates a unique cache key based on the player's UUID, the overlay flag, the skin source and how heads are
+     * currently rendered.
+     * <p>
+     * The render mode and merge threshold are part of the key, so servers rendering heads differently never share
+     * a head: its glyphs would be missing from their resource pack.
+     * </p>
+     *
+     * @param uuid       the UUID of the player.
+     * @param overlay    {@code true} if the skin overlay is applied; {@code false} otherwise.
+     * @param skinSource the source the head is fetched from.
+     * @return a unique string key, identifying the head in a {@link SharedHeadStore}.
+     */
+    public static String getCacheKey(UUID uuid, boolean overlay, SkinSourceEnum skinSource) {
+        return uuid.toString() + ":" + overlay + ":" + skinSource.name()
+                + ":" + SkinSource.getRenderMode().name() + ":" + SkinSource.getMergeThreshold();
+    }
+
+    /**
+     * The state of a head slot. Every state is immutable, so a slot changes state only by replacing it.
+     */
+    private sealed interface SlotState permits Loading, Ready, Failed {
+
+        /**
+         * @return the head served from the slot, possibly stale, or {@code null} if it has none yet.
+         */
+        @Nullable CachedHead head();
+    }
 
-        cacheCleanupTask = Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, () -> {
-            cache.entrySet().removeIf(entry -> isExpired(entry.getValue()));
-        }, CACHE_EXPIRATION / 20, CACHE_EXPIRATION / 20);
+    /**
+     * A head being fetched.
+     *
+     * @param previous the head served until the fetch completes, {@code null} if none.
+     * @param fetch    the fetch, owned by the thread that moved the slot to this state.
+     */
+    private record Loading(@Nullable Ready previous, PendingFetch fetch) implements SlotState {
+        @Override
+        public @Nullable CachedHead head() {
+            return previous != null ? previous.head() : null;
+        }
     }
 
     /**
-     * Generates a unique cache key based on the player's UUID and the overlay flag.
+     * A fetched head, stale once {@code timestamp} is older than the cache's lifetime.
      *
-     * @param uuid    the UUID of the player.
-     * @param overlay {@code true} if the skin overlay is applied; {@code false} otherwise.
-     * @return a unique string key used for caching purposes.
+     * @param head      the cached head.
+     * @param timestamp the time the head was fetched or last renewed, in milliseconds.
      */
-    private String getCacheKey(UUID uuid, boolean overlay) {
-        return uuid.toString() + ":" + overlay;
+    private record Ready(CachedHead head, long timestamp) implements SlotState {
+    }
+
+    /**
+     * A head whose last fetch failed.
+     *
+     * @param previous the head still served, {@code null} if none.
+     * @param retryAt  the time from which the head may be fetched again, in milliseconds.
+     */
+    private record Failed(@Nullable Ready previous, long retryAt) implements SlotState {
+        @Override
+        public @Nullable CachedHead head() {
+            return previous != null ? previous.head() : null;
+        }
+    }
+
+    /**
+     * A fetch that has been scheduled and hasn't finished yet.
+     */
+    private static class PendingFetch {
+
+        /**
+         * Completes once the fetch has finished, successfully or not.
+         */
+        private final CompletableFuture<Void> completion = new CompletableFuture<>();
+
+        /**
+         * The queue ticket of the fetch, set right after it is submitted.
+         */
+        private volatile PriorityFetchQueue.Ticket ticket;
+
+        /**
+         * Moves the fetch to a higher priority, if it is still queued.
+         */
+        void promote(FetchPriority priority) {
+            PriorityFetchQueue.Ticket ticket = this.ticket;
+            if (ticket != null) ticket.promote(priority);
+        }
+    }
+
+    /**
+     * Why a head is fetched.
+     */
+    private enum FetchReason {
+        /**
+         * A lookup found no head, or an expired one.
+         */
+        LOOKUP,
+        /**
+         * The player's texture changed; the shared store is bypassed.
+         */
+        REVALIDATION,
+        /**
+         * Part of a {@link #prefetch} batch; skins are decoded on the common {@link ForkJoinPool}.
+         */
+        PREFETCH
     }
 
     /**
      * A helper class representing a cached head entry.
      * <p>
      * Each {@code CachedHead} instance stores the head representation as an array of {@link BaseComponent},
-     * whether the head was generated with a skin overlay, and the timestamp when the head was cached.
+     * and whether the head was generated with a skin overlay. It is immutable: when it was cached is part of the
+     * slot state holding it.
      * </p>
      */
     private static class CachedHead {
@@ -195,23 +719,60 @@ public class HeadCache {
         private final boolean overlay;
 
         /**
-         * The timestamp (in milliseconds) when this head was cached.
+         * The {@link SkinSource} the head was fetched from.
+         */
+        private final SkinSource skinSource;
+
+        /**
+         * The texture the player wore when the head was fetched, {@code null} if unknown.
+         */
+        private final String textureId;
+
+        /**
+         * The approximate memory retained by {@link #head}, in bytes.
          */
-        private long timestamp;
+        private final long estimatedSize;
+
+        /**
+         * {@link #head} in legacy text format, computed on first use. A changed head gets a new {@code CachedHead},
+         * so this never has to be invalidated.
+         */
+        private volatile String legacyText;
 
         /**
          * Constructs a new {@code CachedHead} instance.
          *
          * @param uuid      the UUID of the player.
          * @param head      the head representation as an array of {@link BaseComponent}.
-         * @param overlay   {@code true} if the head was generated with an overlay; {@code false} otherwise.
-         * @param timestamp the time at which the head was cached (in milliseconds).
+         * @param overlay    {@code true} if the head was generated with an overlay; {@code false} otherwise.
+         * @param skinSource the {@link SkinSource} the head was fetched from.
+         * @param textureId  the texture the player wore when the head was fetched, {@code null} if unknown.
          */
-        CachedHead(UUID uuid, BaseComponent[] head, boolean overlay, long timestamp) {
+        CachedHead(UUID uuid, BaseComponent[] head, boolean overlay, SkinSource skinSource, @Nullable String textureId) {
             this.uuid = uuid;
             this.head = head;
             this.overlay = overlay;
-            this.timestamp = timestamp;
+            this.skinSource = skinSource;
+            this.textureId = textureId;
+            this.estimatedSize = estimateSize(head);
+        }
+
+        /**
+         * Roughly estimates the heap retained by a head: the array itself plus, for every component,
+         * its object header and fields, its text and its color.
+         *
+         * @param head the head representation.
+         * @return the approximate size in bytes.
+         */
+        private static long estimateSize(BaseComponent[] head) {
+            long size = 16L + 4L * head.length;
+            for (BaseComponent component : head) {
+                size += 96;
+                if (component instanceof TextComponent textComponent) {
+                    size += 40 + 2L * textComponent.getText().length();
+                }
+            }
+            return size;
         }
 
         /**
@@ -232,6 +793,21 @@ public class HeadCache {
             return head;
         }
 
+        /**
+         * Retrieves the cached head representation in legacy text format.
+         *
+         * @return the head as a legacy-formatted string.
+         */
+        public String getLegacyText() {
+            String legacyText = this.legacyText;
+            if (legacyText == null) {
+                // Racing threads compute the same string, so no locking is needed.
+                legacyText = TextComponent.toLegacyText(head);
+                this.legacyText = legacyText;
+            }
+            return legacyText;
+        }
+
         /**
          * Indicates whether the head was generated with an overlay.
          *
@@ -242,23 +818,31 @@ public class HeadCache {
         }
 
         /**
-         * Retrieves the timestamp when the head was cached.
+         * Retrieves the {@link SkinSource} the head was fetched from.
          *
-         * @return the timestamp in milliseconds.
+         * @return the skin source.
          */
-        public long getTimestamp() {
-            return timestamp;
+        public SkinSource getSkinSource() {
+            return skinSource;
         }
 
         /**
-         * Updates the cached entry's timestamp to the current time.
-         * <p>
-         * This effectively resets the entry's expiration timer, extending its
-         * lifetime in the cache. Used when a head is considered expired but
-         * the associated player is still online, preventing unnecessary cache removal.
+         * Retrieves the texture the player wore when the head was fetched.
+         *
+         * @return the texture identifier, or {@code null} if unknown.
+         */
+        @Nullable
+        public String getTextureId() {
+            return textureId;
+        }
+
+        /**
+         * Retrieves the approximate memory retained by the cached head.
+         *
+         * @return the estimated size in bytes.
          */
-        public void refreshTimestamp() {
-            this.timestamp = System.currentTimeMillis();
+        public long getEstimatedSize() {
+            return estimatedSize;
         }
     }
 }
@@ -0,0 +1,62 @@
+package net.minso.chathead.API;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.UUID;
+import java.util.logging.Logger;
+
+/**
+ * The server-side services a {@link HeadCache} depends on.
+ * <p>
+ * Implemented once per platform (Bukkit server, BungeeCord proxy, ...) so the cache itself stays
+ * platform-independent. Methods may be called from any thread.
+ * </p>
+ */
+public interface HeadCachePlatform {
+
+    /**
+     * Indicates whether the owning plugin is still enabled. Heads fetched after it was disabled are discarded.
+     *
+     * @return {@code true} if the plugin is enabled.
+     */
+    boolean isEnabled();
+
+    /**
+     * Indicates whether a player is currently online. The heads of online players never expire.
+     *
+     * @param uuid the UUID of the player.
+     * @return {@code true} if the player is online.
+     */
+    boolean isOnline(UUID uuid);
+
+    /**
+     * Resolves the name of a player, for skin sources requesting heads by name.
+     *
+     * @param uuid the UUID of the player.
+     * @return the player's name, or {@code null} if unknown.
+     */
+    @Nullable
+    String getName(UUID uuid);
+
+    /**
+     * Retrieves the logger of the owning plugin, which receives the errors the cache recovers from.
+     *
+     * @return the logger of the plugin.
+     */
+    Logger getLogger();
+
+    /**
+     * Identifies the texture an online player currently wears, such as the URL of their skin, which contains its hash.
+     * <p>
+     * Used to detect skin changes without any network request, so it must be cheap. The default implementation
+     * doesn't know textures, which disables change detection.
+     * </p>
+     *
+     * @param uuid the UUID of an online player.
+     * @return an identifier of the player's current texture, or {@code null} if unknown.
+     */
+    @Nullable
+    default String getTextureId(UUID uuid) {
+        return null;
+    }
+}
@@ -0,0 +1,23 @@
+package net.minso.chathead.API;
+
+import net.md_5.bungee.api.chat.BaseComponent;
+
+import java.util.UUID;
+
+/**
+ * Notified by the {@link HeadCache} when a cached head is replaced by a different one, typically because the
+ * player changed their skin.
+ */
+@FunctionalInterface
+public interface HeadChangeListener {
+
+    /**
+     * Called from the fetch thread once the new head is cached.
+     *
+     * @param uuid         the UUID of the player.
+     * @param overlay      {@code true} if the heads were generated with the skin overlay.
+     * @param previousHead the head that was replaced.
+     * @param newHead      the new head.
+     */
+    void onHeadChange(UUID uuid, boolean overlay, BaseComponent[] previousHead, BaseComponent[] newHead);
+}
@@ -0,0 +1,357 @@
+package net.minso.chathead.API;
+
+import net.md_5.bungee.api.ChatColor;
+import net.md_5.bungee.api.chat.BaseComponent;
+import net.md_5.bungee.api.chat.TextComponent;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The ways a head can be rendered into chat components, trading detail for size.
+ * <p>
+ * Every mode draws one glyph of the resource pack per pixel and moves back with negative spaces so the pixels
+ * are stacked. {@link #FULL} and {@link #DOWNSAMPLED} color their glyphs with the pixel's color: consecutive pixels
+ * of the same color share a single component, and the optional palette quantization
+ * (see {@link #render(String[], int)}) makes that more frequent. {@link #PALETTE} uses pre-colored glyphs instead,
+ * so the whole head is a single component.
+ * </p>
+ * <p>
+ * In legacy text format, every component costs 14 characters of color code plus its glyphs:
+ * </p>
+ * <ul>
+ *     <li>{@link #FULL}: 8x8 pixels, up to 64 components, about 1 KB per head.</li>
+ *     <li>{@link #DOWNSAMPLED}: 4x4 pixels of 2x2 each, up to 16 components, about 260 bytes per head. The face
+ *     stays recognizable, but details such as eyes of a single pixel are blended with their neighbours.</li>
+ *     <li>{@link #PALETTE}: 8x8 pixels with 4 bits per color channel, a single component, about 200 characters
+ *     per head. Colors are off by at most 8 per channel, which is hard to notice on a skin.</li>
+ * </ul>
+ * Use {@link #report(String[], int)} to measure the trade-off on an actual skin.
+ */
+public enum HeadRenderMode {
+
+    /**
+     * The full 8x8 head, one glyph of 1x1 pixel per skin pixel.
+     */
+    FULL(8, '\uF001', '\uF102'),
+
+    /**
+     * A 4x4 head, one glyph of 2x2 pixels per block of 2x2 skin pixels whose colors are averaged.
+     * Needs the {@code block} glyphs of the resource pack.
+     */
+    DOWNSAMPLED(4, '\uF011', '\uF103'),
+
+    /**
+     * The full 8x8 head drawn row by row with pre-colored glyphs, one per row and 12-bit color, so no component
+     * needs a color of its own. Needs the palette font generated by {@code PaletteFont}, which the embedded
+     * resource pack includes when this mode is selected.
+     */
+    PALETTE(8, '\0', '\0');
+
+    /**
+     * Moves the next column one pixel further than the glyphs of the previous one.
+     */
+    private static final char NEXT_COLUMN = '\uF101';
+
+    /**
+     * Moves back from the end of a row to the start of the head, so the next row is drawn below it.
+     */
+    private static final char NEXT_ROW = '\uF109';
+
+    /**
+     * The first code point of the {@link #PALETTE} glyphs, in the Supplementary Private Use Area-A. The glyph of a
+     * pixel of row {@code y} and 12-bit color {@code rgb} is {@code FIRST_PALETTE_GLYPH + y * 4096 + rgb}.
+     */
+    public static final int FIRST_PALETTE_GLYPH = 0xF0000;
+
+    /**
+     * The number of pixels per row and column.
+     */
+    private final int size;
+
+    /**
+     * The glyph of the top pixel; the glyph of the pixel of row {@code y} is {@code firstGlyph + y}.
+     */
+    private final char firstGlyph;
+
+    /**
+     * The negative space moving back to the start of the glyph just drawn.
+     */
+    private final char back;
+
+    HeadRenderMode(int size, char firstGlyph, char back) {
+        this.size = size;
+        this.firstGlyph = firstGlyph;
+        this.back = back;
+    }
+
+    /**
+     * @return the number of pixels per row and column of the rendered head.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Renders a head from the colors of its 8x8 pixels.
+     * <p>
+     * If {@code mergeThreshold} is positive, the palette is quantized: a pixel whose color is within that
+     * perceptual distance of the previous pixel's color takes that color, so both share a component. The distance
+     * is the weighted "redmean" RGB distance, from {@code 0} (identical) to about {@code 765} (black and white);
+     * values around {@code 20} are barely noticeable.
+     * </p>
+     *
+     * @param hexColors      the 64 colors of the head in hex form, column by column.
+     * @param mergeThreshold the maximum distance of colors merged together, {@code 0} to keep every color.
+     * @return the rendered head.
+     */
+    public BaseComponent[] render(String[] hexColors, int mergeThreshold) {
+        int[] pixels = quantize(sample(hexColors), mergeThreshold);
+        if (this == PALETTE) return renderPalette(pixels);
+
+        List<BaseComponent> components = new ArrayList<>(pixels.length + 1);
+        TextComponent run = null;
+        int runColor = -1;
+        StringBuilder text = new StringBuilder();
+
+        for (int i = 0; i < pixels.length; i++) {
+            text.setLength(0);
+            text.append((char) (firstGlyph + i % size));
+            // Move back to draw the next pixel of the column, or to the next column after the bottom pixel.
+            if (i == pixels.length - 1) {
+                // The last pixel keeps its advance.
+            } else if (i % size == size - 1) {
+                text.append(NEXT_COLUMN);
+            } else {
+                text.append(back);
+            }
+
+            if (run != null && pixels[i] == runColor) {
+                run.setText(run.getText() + text);
+                continue;
+            }
+            run = new TextComponent(text.toString());
+            run.setColor(ChatColor.of(String.format("#%06X", pixels[i])));
+            runColor = pixels[i];
+            components.add(run);
+        }
+
+        components.add(defaultFont());
+        return components.toArray(new BaseComponent[0]);
+    }
+
+    /**
+     * Renders the pixels row by row with their {@link #PALETTE} glyphs, in a single white component which leaves
+     * the glyphs' colors untouched.
+     */
+    private static BaseComponent[] renderPalette(int[] pixels) {
+        StringBuilder text = new StringBuilder(64 * 3);
+        for (int y = 0; y < 8; y++) {
+            for (int x = 0; x < 8; x++) {
+                text.appendCodePoint(paletteGlyph(y, pixels[x * 8 + y]));
+                if (x < 7) {
+                    text.append(NEXT_COLUMN);
+                } else if (y < 7) {
+                    text.append(NEXT_ROW);
+                }
+                // The last pixel keeps its advance.
+            }
+        }
+
+        TextComponent head = new TextComponent(text.toString());
+        head.setColor(ChatColor.WHITE);
+        return new BaseComponent[]{head, defaultFont()};
+    }
+
+    /**
+     * Rounds a color to 4 bits per channel and returns the {@link #PALETTE} glyph drawing it on the given row.
+     */
+    private static int paletteGlyph(int row, int rgb) {
+        int r = ((rgb >> 16 & 0xFF) * 15 + 127) / 255;
+        int g = ((rgb >> 8 & 0xFF) * 15 + 127) / 255;
+        int b = ((rgb & 0xFF) * 15 + 127) / 255;
+        return FIRST_PALETTE_GLYPH + row * 4096 + (r << 8 | g << 4 | b);
+    }
+
+    /**
+     * Switches back to the default font for whatever follows the head.
+     */
+    private static TextComponent defaultFont() {
+        TextComponent defaultFont = new TextComponent();
+        defaultFont.setText("");
+        defaultFont.setFont("minecraft:default");
+        return defaultFont;
+    }
+
+    /**
+     * Measures what rendering a head with this mode costs and loses.
+     *
+     * @param hexColors      the 64 colors of the head in hex form, column by column.
+     * @param mergeThreshold the maximum distance of colors merged together, {@code 0} to keep every color.
+     * @return the size and error of the rendered head.
+     */
+    public Report report(String[] hexColors, int mergeThreshold) {
+        BaseComponent[] head = render(hexColors, mergeThreshold);
+        int[] rendered = upscale(decodePixels(head));
+
+        // Compare every skin pixel with the pixel covering it in the rendered head.
+        double error = 0;
+        for (int i = 0; i < 64; i++) {
+            error += distance(parse(hexColors[i]), rendered[i]);
+        }
+
+        return new Report(this, mergeThreshold, head.length, TextComponent.toLegacyText(head).length(), error / 64);
+    }
+
+    /**
+     * Averages the 8x8 pixels into the pixels of this mode.
+     */
+    private int[] sample(String[] hexColors) {
+        int scale = 8 / size;
+        int[] pixels = new int[size * size];
+        for (int x = 0; x < size; x++) {
+            for (int y = 0; y < size; y++) {
+                int r = 0, g = 0, b = 0;
+                for (int dx = 0; dx < scale; dx++) {
+                    for (int dy = 0; dy < scale; dy++) {
+                        int rgb = parse(hexColors[(x * scale + dx) * 8 + y * scale + dy]);
+                        r += rgb >> 16 & 0xFF;
+                        g += rgb >> 8 & 0xFF;
+                        b += rgb & 0xFF;
+                    }
+                }
+                int count = scale * scale;
+                pixels[x * size + y] = (r / count) << 16 | (g / count) << 8 | (b / count);
+            }
+        }
+        return pixels;
+    }
+
+    /**
+     * Gives every pixel close enough to the previous one the previous one's color, in place.
+     */
+    private static int[] quantize(int[] pixels, int mergeThreshold) {
+        if (mergeThreshold <= 0) return pixels;
+
+        for (int i = 1; i < pixels.length; i++) {
+            if (distance(pixels[i - 1], pixels[i]) <= mergeThreshold) pixels[i] = pixels[i - 1];
+        }
+        return pixels;
+    }
+
+    /**
+     * The "redmean" approximation of the perceived distance between two colors.
+     */
+    private static double distance(int first, int second) {
+        int r1 = first >> 16 & 0xFF, r2 = second >> 16 & 0xFF;
+        int dr = r1 - r2;
+        int dg = (first >> 8 & 0xFF) - (second >> 8 & 0xFF);
+        int db = (first & 0xFF) - (second & 0xFF);
+        double redMean = (r1 + r2) / 2.0;
+        return Math.sqrt((2 + redMean / 256) * dr * dr + 4 * dg * dg + (2 + (255 - redMean) / 256) * db * db);
+    }
+
+    /**
+     * Reads the pixels back from a head rendered by any mode, e.g. to draw it into a texture.
+     * Heads of 4x4 pixels are scaled up to 8x8.
+     *
+     * @param head the rendered head.
+     * @return the 64 colors of the head as RGB values, column by column, or {@code null} if {@code head}
+     * wasn't rendered by a {@code HeadRenderMode}.
+     */
+    public static int @Nullable [] decode(BaseComponent[] head) {
+        for (HeadRenderMode mode : values()) {
+            int[] pixels = mode.decodePixels(head);
+            if (pixels != null) return mode.upscale(pixels);
+        }
+        return null;
+    }
+
+    /**
+     * Scales the pixels of this mode up to 8x8.
+     */
+    private int[] upscale(int[] pixels) {
+        int scale = 8 / size;
+        int[] colors = new int[64];
+        for (int i = 0; i < 64; i++) {
+            int x = i / 8, y = i % 8;
+            colors[i] = pixels[(x / scale) * size + y / scale];
+        }
+        return colors;
+    }
+
+    /**
+     * Reads the pixels of a head rendered by this mode.
+     *
+     * @return the colors of the pixels, or {@code null} if the head wasn't rendered by this mode.
+     */
+    private int @Nullable [] decodePixels(BaseComponent[] head) {
+        if (this == PALETTE) return decodePalette(head);
+
+        int[] pixels = new int[size * size];
+        int count = 0;
+        for (BaseComponent component : head) {
+            if (!(component instanceof TextComponent textComponent)) continue;
+
+            String text = textComponent.getText();
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (c < firstGlyph || c >= firstGlyph + size) continue;
+                // Every pixel is colored.
+                if (count == pixels.length || component.getColorRaw() == null) return null;
+                pixels[count++] = component.getColorRaw().getColor().getRGB() & 0xFFFFFF;
+            }
+        }
+        return count == pixels.length ? pixels : null;
+    }
+
+    private static int @Nullable [] decodePalette(BaseComponent[] head) {
+        int[] pixels = new int[64];
+        int count = 0;
+        for (BaseComponent component : head) {
+            if (!(component instanceof TextComponent textComponent)) continue;
+
+            int[] codePoints = textComponent.getText().codePoints().toArray();
+            for (int codePoint : codePoints) {
+                int glyph = codePoint - FIRST_PALETTE_GLYPH;
+                if (glyph < 0 || glyph >= 8 * 4096) continue;
+                // Pixels are drawn row by row and stored column by column.
+                if (count == 64 || glyph / 4096 != count / 8) return null;
+                int r = (glyph >> 8 & 0xF) * 17, g = (glyph >> 4 & 0xF) * 17, b = (glyph & 0xF) * 17;
+                pixels[(count % 8) * 8 + count / 8] = r << 16 | g << 8 | b;
+                count++;
+            }
+        }
+        return count == 64 ? pixels : null;
+    }
+
+    /**
+     * Retrieves the mode of the given name, case-insensitive.
+     *
+     * @param name the name of the mode.
+     * @return the mode, or {@link #FULL} if no mode has that name.
+     */
+    public static HeadRenderMode fromName(String name) {
+        for (HeadRenderMode mode : values()) {
+            if (mode.name().equalsIgnoreCase(name)) return mode;
+        }
+        return FULL;
+    }
+
+    private static int parse(String hexColor) {
+        return Integer.parseInt(hexColor.substring(1), 16);
+    }
+
+    /**
+     * What rendering a head with a {@link HeadRenderMode} costs and loses.
+     *
+     * @param mode           the mode the head was rendered with.
+     * @param mergeThreshold the palette quantization threshold the head was rendered with.
+     * @param components     the number of components of the rendered head.
+     * @param legacyLength   the length of the rendered head in legacy text format, in characters.
+     * @param meanError      the mean perceptual distance between the skin's pixels and the rendered ones.
+     */
+    public record Report(HeadRenderMode mode, int mergeThreshold, int components, int legacyLength, double meanError) {
+    }
+}
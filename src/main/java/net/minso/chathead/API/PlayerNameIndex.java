@@ -0,0 +1,317 @@
+package net.minso.chathead.API;
+
+import net.minso.chathead.API.impl.MojangSource;
+import net.minso.chathead.Main;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.jetbrains.annotations.Nullable;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.regex.Pattern;
+
+/**
+ * The {@code PlayerNameIndex} class resolves player names to UUIDs without ever blocking the calling thread.
+ * <p>
+ * The index is filled from players joining the server, from the server's {@code usercache.json} and from
+ * Mojang's bulk profile API. Names missing from the index are queued and looked up asynchronously in batches,
+ * so {@link #resolve(String)} returns {@code null} the first time an unknown name is requested and the UUID
+ * once the lookup completed. Resolved names, including names that don't exist, are kept for a limited time.
+ * </p>
+ * <p>
+ * On offline-mode servers, UUIDs are derived from the name the same way the server does, so no lookup is needed.
+ * Servers behind a BungeeCord or Velocity proxy run in offline mode too, but their players have online UUIDs, so
+ * names are looked up like on online-mode servers.
+ * </p>
+ */
+public class PlayerNameIndex implements Listener {
+
+    /**
+     * The maximum number of names Mojang's bulk profile API accepts in a single request.
+     */
+    private static final int BATCH_SIZE = 10;
+
+    /**
+     * The maximum number of requests sent per run of the lookup task, i.e. per second, so a large backlog of
+     * unknown names is spread out instead of hitting Mojang's rate limit all at once.
+     */
+    private static final int MAX_BATCHES_PER_RUN = 3;
+
+    /**
+     * Names that don't exist are retried sooner than resolved names expire, in case they get registered.
+     */
+    private static final long NEGATIVE_TTL_MILLIS = 5 * 60 * 1000L;
+
+    /**
+     * How long lookups are paused after a failed request.
+     */
+    private static final long BACKOFF_MILLIS = 30 * 1000L;
+
+    /**
+     * Names Mojang's API accepts; a single invalid name fails the whole batch.
+     */
+    private static final Pattern VALID_NAME = Pattern.compile("[A-Za-z0-9_]{1,16}");
+
+    private final Main plugin;
+    private final long ttlMillis;
+    private final String profileApiUrl;
+
+    /**
+     * Whether UUIDs are derived from names, on offline-mode servers that aren't behind a proxy.
+     */
+    private final boolean offlineUuids;
+
+    /**
+     * Resolved names, keyed by lowercase name. A {@code null} UUID marks a name that doesn't exist.
+     */
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Lowercase names waiting to be looked up.
+     */
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+
+    /**
+     * The time lookups are paused until, in milliseconds since the epoch.
+     */
+    private volatile long pausedUntil;
+
+    /**
+     * Constructs a new {@code PlayerNameIndex} and starts its lookup task.
+     *
+     * @param plugin     the {@link Main} instance owning the index.
+     * @param ttlSeconds how long a resolved name is kept, in seconds.
+     */
+    public PlayerNameIndex(Main plugin, int ttlSeconds) {
+        this(plugin, ttlSeconds, MojangSource.PROFILE_API_URL);
+    }
+
+    /**
+     * Constructs a new {@code PlayerNameIndex} looking names up from a different endpoint, e.g. a caching
+     * mirror of Mojang's API, and starts its lookup task.
+     *
+     * @param plugin        the {@link Main} instance owning the index.
+     * @param ttlSeconds    how long a resolved name is kept, in seconds.
+     * @param profileApiUrl the base URL replacing {@value MojangSource#PROFILE_API_URL}.
+     */
+    public PlayerNameIndex(Main plugin, int ttlSeconds, String profileApiUrl) {
+        this.plugin = plugin;
+        this.ttlMillis = ttlSeconds * 1000L;
+        this.profileApiUrl = profileApiUrl;
+        this.offlineUuids = !Bukkit.getOnlineMode() && !plugin.isBehindProxy();
+
+        plugin.getPluginScheduler().runAsync(this::loadUserCache);
+        plugin.getPluginScheduler().runAsyncTimer(this::lookupPending, 20, 20);
+    }
+
+    /**
+     * Resolves a player name to a UUID without blocking.
+     * <p>
+     * Online players and indexed names are answered immediately. Any other name is queued for an
+     * asynchronous lookup and {@code null} is returned until it completes.
+     * </p>
+     *
+     * @param name the name of the player, case-insensitive.
+     * @return the UUID of the player, or {@code null} if it isn't known (yet) or the player doesn't exist.
+     */
+    public @Nullable UUID resolve(String name) {
+        String key = name.toLowerCase(Locale.ROOT);
+
+        Entry entry = entries.get(key);
+        if (entry != null && entry.expiresAt > System.currentTimeMillis()) return entry.uuid;
+
+        Player player = Bukkit.getPlayerExact(name);
+        if (player != null) {
+            put(player.getName(), player.getUniqueId());
+            return player.getUniqueId();
+        }
+
+        if (offlineUuids) {
+            UUID uuid = UUID.nameUUIDFromBytes(("OfflinePlayer:" + name).getBytes(StandardCharsets.UTF_8));
+            put(name, uuid);
+            return uuid;
+        }
+
+        if (!VALID_NAME.matcher(name).matches()) {
+            entries.put(key, new Entry(null, System.currentTimeMillis() + NEGATIVE_TTL_MILLIS));
+            return null;
+        }
+
+        pending.add(key);
+        // Keep serving an expired entry until the lookup replaced it.
+        return entry != null ? entry.uuid : null;
+    }
+
+    /**
+     * Checks whether a name was looked up and turned out not to belong to any player.
+     *
+     * @param name the name of the player, case-insensitive.
+     * @return {@code true} if the name is known not to exist.
+     */
+    public boolean isUnknown(String name) {
+        Entry entry = entries.get(name.toLowerCase(Locale.ROOT));
+        return entry != null && entry.uuid == null;
+    }
+
+    /**
+     * Adds a name to the index, replacing any previous entry.
+     *
+     * @param name the name of the player.
+     * @param uuid the UUID of the player.
+     */
+    public void put(String name, UUID uuid) {
+        String key = name.toLowerCase(Locale.ROOT);
+        entries.put(key, new Entry(uuid, System.currentTimeMillis() + ttlMillis));
+        pending.remove(key);
+    }
+
+    /**
+     * Removes expired entries from the index.
+     */
+    public void cleanup() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(entry -> entry.expiresAt <= now);
+    }
+
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        put(event.getPlayer().getName(), event.getPlayer().getUniqueId());
+    }
+
+    /**
+     * Indexes every entry of the server's {@code usercache.json}.
+     */
+    private void loadUserCache() {
+        File file = new File(Bukkit.getWorldContainer(), "usercache.json");
+        if (!file.isFile()) return;
+
+        try {
+            JSONArray cache = new JSONArray(Files.readString(file.toPath()));
+            for (int i = 0; i < cache.length(); i++) {
+                JSONObject profile = cache.getJSONObject(i);
+                String key = profile.getString("name").toLowerCase(Locale.ROOT);
+                // Entries from joins take precedence over the usercache.
+                entries.putIfAbsent(key, new Entry(UUID.fromString(profile.getString("uuid")),
+                        System.currentTimeMillis() + ttlMillis));
+            }
+        } catch (IOException | JSONException | IllegalArgumentException e) {
+            plugin.getLogger().log(Level.WARNING, "Could not read usercache.json", e);
+        }
+    }
+
+    /**
+     * Looks up pending names, {@value #BATCH_SIZE} names per request and at most {@value #MAX_BATCHES_PER_RUN}
+     * requests per run. Stops as soon as a request failed or was rate limited; the remaining names stay pending.
+     */
+    private void lookupPending() {
+        cleanup();
+
+        List<String> batch = new ArrayList<>(BATCH_SIZE);
+        int batches = 0;
+        for (String name : pending) {
+            batch.add(name);
+            if (batch.size() < BATCH_SIZE) continue;
+
+            if (batches == MAX_BATCHES_PER_RUN || !lookupUnlessPaused(batch)) return;
+            batches++;
+            batch.clear();
+        }
+        if (!batch.isEmpty() && batches < MAX_BATCHES_PER_RUN) lookupUnlessPaused(batch);
+    }
+
+    /**
+     * Looks up a batch of names, unless lookups are paused.
+     *
+     * @return {@code false} if lookups are paused, possibly by this very lookup.
+     */
+    private boolean lookupUnlessPaused(List<String> names) {
+        if (System.currentTimeMillis() < pausedUntil) return false;
+
+        lookup(names);
+        return System.currentTimeMillis() >= pausedUntil;
+    }
+
+    /**
+     * Looks up a batch of names using Mojang's bulk profile API.
+     * Names missing from the response don't exist and are indexed as such.
+     *
+     * @param names up to {@value #BATCH_SIZE} lowercase names.
+     */
+    private void lookup(List<String> names) {
+        try {
+            URL url = new URL(profileApiUrl + "/profiles/minecraft");
+            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+            connection.setRequestMethod("POST");
+            connection.setRequestProperty("Content-Type", "application/json");
+            connection.setDoOutput(true);
+
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(new JSONArray(names).toString().getBytes(StandardCharsets.UTF_8));
+            }
+            // Rate limited: keep the names pending and retry once the pause is over.
+            if (connection.getResponseCode() == 429) {
+                pausedUntil = System.currentTimeMillis() + BACKOFF_MILLIS;
+                return;
+            }
+
+            JSONArray profiles;
+            try (InputStream in = connection.getInputStream()) {
+                profiles = new JSONArray(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            }
+
+            Set<String> missing = new HashSet<>(names);
+            for (int i = 0; i < profiles.length(); i++) {
+                JSONObject profile = profiles.getJSONObject(i);
+                put(profile.getString("name"), parseUndashed(profile.getString("id")));
+                missing.remove(profile.getString("name").toLowerCase(Locale.ROOT));
+            }
+            // Only names missing from the response are negative, so existing players are never reported unknown.
+            long now = System.currentTimeMillis();
+            for (String name : missing) {
+                entries.put(name, new Entry(null, now + Math.min(ttlMillis, NEGATIVE_TTL_MILLIS)));
+            }
+            names.forEach(pending::remove);
+        } catch (IOException | JSONException | IllegalArgumentException e) {
+            pausedUntil = System.currentTimeMillis() + BACKOFF_MILLIS;
+            plugin.getLogger().log(Level.WARNING, "Could not look up the UUIDs of " + names, e);
+        }
+    }
+
+    /**
+     * Parses a UUID in the undashed form used by Mojang's API.
+     */
+    private static UUID parseUndashed(String id) {
+        return new UUID(Long.parseUnsignedLong(id.substring(0, 16), 16), Long.parseUnsignedLong(id.substring(16), 16));
+    }
+
+    /**
+     * A resolved name.
+     *
+     * @param uuid      the UUID of the player, or {@code null} if the name doesn't belong to any player.
+     * @param expiresAt the time the entry expires at, in milliseconds since the epoch.
+     */
+    private record Entry(@Nullable UUID uuid, long expiresAt) {
+    }
+}
@@ -1,22 +1,54 @@
 package net.minso.chathead.API;
 
-import net.md_5.bungee.api.ChatColor;
 import net.md_5.bungee.api.chat.BaseComponent;
-import net.md_5.bungee.api.chat.ComponentBuilder;
-import net.md_5.bungee.api.chat.TextComponent;
-import org.bukkit.OfflinePlayer;
+import net.minso.chathead.API.jfr.HeadFetchStage;
+import net.minso.chathead.API.jfr.HeadFetchStageEvent;
+import net.minso.chathead.API.jfr.HeadTrace;
+import org.jetbrains.annotations.Nullable;
 
 import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URL;
-import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
  * Abstract class to manage SkinSources
+ * <p>
+ * Skin sources are shared by the Bukkit and the proxy plugins, so they don't depend on any server API. Subclasses
+ * implement {@link #getHead(UUID, String, boolean)}; the former {@code getHead(OfflinePlayer, boolean)} was removed,
+ * heads of a Bukkit {@code OfflinePlayer} are retrieved through {@code ChatHeadAPI#getHead(OfflinePlayer, boolean, SkinSource)}.
+ * </p>
  */
 public abstract class SkinSource {
 
+    /**
+     * The pool decoding images for fetches running inside {@link #withDecodePool}, {@code null} to decode inline.
+     */
+    private static final ThreadLocal<ForkJoinPool> DECODE_POOL = new ThreadLocal<>();
+
+    /**
+     * How fetched heads are rendered, set from the configuration by {@link #setRenderMode}.
+     */
+    private static volatile HeadRenderMode renderMode = HeadRenderMode.FULL;
+
+    /**
+     * The palette quantization threshold fetched heads are rendered with.
+     */
+    private static volatile int mergeThreshold;
+
+    /**
+     * The logger of the owning plugin, set by {@link #setLogger}.
+     */
+    private static volatile Logger logger = Logger.getLogger("ChatHead");
+
     private final SkinSourceEnum skinSource;
 
     private final boolean hasUsernameSupport;
@@ -52,15 +84,16 @@ public abstract class SkinSource {
 
 
     /**
-     * Retrieves a 8x8 grid of pixels representing a players head, using the player's UUID and specified options.
+     * Retrieves a 8x8 grid of pixels representing a players head, without depending on the server platform.
      *
-     * @param player     The Player object representing the player whose head is to be retrieved.
+     * @param uuid       The UUID of the player whose head is to be retrieved.
+     * @param name       The name of the player, used by sources requesting heads by name.
+     *                   If {@code null}, the UUID is used instead.
      * @param overlay    A boolean value indicating whether to apply overlay on the players head.
-     *                   Supported sources include MOJANG, MINOTAR, and CRAFATAR.
      * @return           An array of BaseComponents representing the player's head.
      *                   Each BaseComponent represents a single pixel, forming a 8x8 grid of pixels.
      */
-    abstract public BaseComponent[] getHead(OfflinePlayer player, boolean overlay);
+    abstract public BaseComponent[] getHead(UUID uuid, @Nullable String name, boolean overlay);
 
 
     /**
@@ -75,44 +108,57 @@ public abstract class SkinSource {
             throw new IllegalArgumentException("Hex colors must have at least 64 elements.");
         }
 
-        // Initialize a 2D array to store TextComponents representing each pixel of the players head
-        TextComponent[][] components = new TextComponent[8][8];
-
-        for (int i = 0; i < 64; i++) {
-            int row = i / 8;
-            int col = i % 8;
-            char unicodeChar = (char) ('\uF000' + (i % 8) + 1);
-            TextComponent component = new TextComponent();
-
-            // Determine the character and styling based on the position of the pixel within the 8x8 grid
-            if (i == 7 || i == 15 || i == 23 || i == 31 || i == 39 || i == 47 || i == 55) {
-                component.setText(unicodeChar + Character.toString('\uF101'));
-            } else if (i == 63) {
-                component.setText(Character.toString(unicodeChar));
-            } else {
-                component.setText(unicodeChar + Character.toString('\uF102'));
-            }
+        HeadFetchStageEvent event = HeadTrace.beginStage(HeadFetchStage.RENDER);
+        BaseComponent[] baseComponents = renderMode.render(hexColors, mergeThreshold);
+        HeadTrace.endStage(event, 0, true);
+        return baseComponents; // Return the array of BaseComponents representing the players head
+    }
 
-            // Set the color of the TextComponent based on the corresponding hexadecimal color
-            component.setColor(ChatColor.of(hexColors[i]));
-            components[row][col] = component;
-        }
+    /**
+     * Transforms an 8x8 grid in hex form into BaseComponent[] with {@link HeadRenderMode#FULL}, without any tracing.
+     * Used to render heads that aren't fetched, such as {@link FallbackHead}s.
+     *
+     * @param hexColors The 8x8 grid in hex form, column by column.
+     * @return The 8x8 grid in BaseComponent[].
+     */
+    public static BaseComponent[] render(String[] hexColors) {
+        return HeadRenderMode.FULL.render(hexColors, 0);
+    }
 
-        // Create a default TextComponent with no text and the default font.
-        TextComponent defaultFont = new TextComponent();
-        defaultFont.setText("");
-        defaultFont.setFont("minecraft:default");
+    /**
+     * Sets how every {@code SkinSource} renders the heads it fetches from now on.
+     * Heads already cached keep the mode they were rendered with until they are fetched again.
+     *
+     * @param renderMode     the {@link HeadRenderMode} to render heads with.
+     * @param mergeThreshold the palette quantization threshold, {@code 0} to keep every color.
+     *                       See {@link HeadRenderMode#render(String[], int)}.
+     */
+    public static void setRenderMode(HeadRenderMode renderMode, int mergeThreshold) {
+        SkinSource.renderMode = renderMode;
+        SkinSource.mergeThreshold = mergeThreshold;
+    }
 
-        // Construct the array of BaseComponents representing the player's head by appending the TextComponents
-        BaseComponent[] baseComponents = new ComponentBuilder()
-                .append(Arrays.stream(components)
-                        .flatMap(Arrays::stream)
-                        .toArray(TextComponent[]::new))
-                .append(defaultFont)
-                .create();
+    /**
+     * Sets the logger receiving the errors skin sources recover from.
+     *
+     * @param logger the logger of the owning plugin.
+     */
+    public static void setLogger(Logger logger) {
+        SkinSource.logger = logger;
+    }
 
-        return baseComponents; // Return the array of BaseComponents representing the players head
+    /**
+     * @return the {@link HeadRenderMode} heads are rendered with.
+     */
+    public static HeadRenderMode getRenderMode() {
+        return renderMode;
+    }
 
+    /**
+     * @return the palette quantization threshold heads are rendered with.
+     */
+    public static int getMergeThreshold() {
+        return mergeThreshold;
     }
 
     /**
@@ -133,7 +179,9 @@ public abstract class SkinSource {
     public String[] getPixelColorsFromSkin(String playerSkinUrl, boolean overlay) {
         String[] colors = new String[64];
         try {
-            BufferedImage skinImage = ImageIO.read(new URL(playerSkinUrl));
+            BufferedImage skinImage = decodeImage(downloadTexture(playerSkinUrl));
+
+            HeadFetchStageEvent event = HeadTrace.beginStage(HeadFetchStage.EXTRACT);
 
             // If the skin image is less than 64 pixels in height, it’s an old skin without overlays.
             if (skinImage.getHeight() < 64) {
@@ -170,12 +218,132 @@ public abstract class SkinSource {
                     colors[index++] = String.format("#%06X", (rgbFace & 0xFFFFFF));
                 }
             }
+
+            HeadTrace.endStage(event, 0, true);
         } catch (IOException e) {
             e.printStackTrace();
         }
         return colors; // Return the array containing the pixel colors
     }
 
+    /**
+     * Retrieves the pixel colors from an already cropped 8x8 avatar image, as served by
+     * avatar services such as Crafatar, Minotar and mc-heads.
+     *
+     * @param avatarUrl The URL of the 8x8 avatar image.
+     * @return An array of 64 hexadecimal color codes, or an array of {@code null}s if the avatar couldn't be retrieved.
+     */
+    protected String[] getPixelColorsFromAvatar(String avatarUrl) {
+        String[] colors = new String[64]; // Initialize an array to store the pixel colors
+        BufferedImage avatarImage;
+        try {
+            avatarImage = decodeImage(downloadTexture(avatarUrl)); // Read the avatar image from the URL
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Could not retrieve the avatar " + avatarUrl, e);
+            return colors;
+        }
+
+        HeadFetchStageEvent event = HeadTrace.beginStage(HeadFetchStage.EXTRACT);
+        boolean success = false;
+        try {
+            int faceWidth = 8, faceHeight = 8; // Define dimensions of the face (8x8)
+            if (avatarImage.getWidth() < faceWidth || avatarImage.getHeight() < faceHeight) {
+                logger.warning("The avatar " + avatarUrl + " is smaller than 8x8 pixels");
+                return colors;
+            }
+
+            int index = 0;
+            // Iterate through each pixel of the avatar image and extract its color
+            for (int x = 0; x < faceHeight; x++) {
+                for (int y = 0; y < faceWidth; y++) {
+                    // Convert RGB value to hexadecimal string representation and store it in the array
+                    colors[index++] = String.format("#%06X", (avatarImage.getRGB(x, y) & 0xFFFFFF));
+                }
+            }
+            success = true;
+        } finally {
+            // Failed extractions are recorded too, not only successful ones.
+            HeadTrace.endStage(event, 0, success);
+        }
+        return colors;
+    }
+
+    /**
+     * Downloads a skin or avatar image.
+     *
+     * @param textureUrl The URL of the image.
+     * @return The raw bytes of the image.
+     * @throws IOException If the image couldn't be downloaded.
+     */
+    protected byte[] downloadTexture(String textureUrl) throws IOException {
+        HeadFetchStageEvent event = HeadTrace.beginStage(HeadFetchStage.TEXTURE_DOWNLOAD);
+        byte[] bytes = null;
+        try (InputStream in = new URL(textureUrl).openStream()) {
+            bytes = in.readAllBytes();
+            return bytes;
+        } finally {
+            HeadTrace.endStage(event, bytes != null ? bytes.length : 0, bytes != null);
+        }
+    }
+
+    /**
+     * Decodes a downloaded skin or avatar image.
+     *
+     * @param bytes The raw bytes of the image.
+     * @return The decoded image.
+     * @throws IOException If the bytes couldn't be decoded into an image.
+     */
+    protected BufferedImage decodeImage(byte[] bytes) throws IOException {
+        HeadFetchStageEvent event = HeadTrace.beginStage(HeadFetchStage.DECODE);
+        BufferedImage image = null;
+        try {
+            ForkJoinPool pool = DECODE_POOL.get();
+            image = pool != null ? decodeOn(pool, bytes) : ImageIO.read(new ByteArrayInputStream(bytes));
+            if (image == null) {
+                throw new IOException("Unsupported image format");
+            }
+            return image;
+        } finally {
+            HeadTrace.endStage(event, bytes.length, image != null);
+        }
+    }
+
+    /**
+     * Decodes an image on the given pool, waiting for the result.
+     */
+    private static BufferedImage decodeOn(ForkJoinPool pool, byte[] bytes) throws IOException {
+        try {
+            return pool.submit(() -> ImageIO.read(new ByteArrayInputStream(bytes))).get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException ioException) throw ioException;
+            throw new IOException("Could not decode image", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while decoding image", e);
+        }
+    }
+
+    /**
+     * Runs a fetch whose downloaded images are decoded on the given pool rather than on the calling thread.
+     * <p>
+     * Used for bulk fetches: many fetch threads wait on the network, while the CPU-bound decoding of their skins
+     * runs in parallel on a pool sized to the number of cores.
+     * </p>
+     *
+     * @param pool  the pool to decode images on.
+     * @param fetch the fetch to run on the calling thread.
+     * @param <T>   the result type of the fetch.
+     * @return the result of {@code fetch}.
+     */
+    public static <T> T withDecodePool(ForkJoinPool pool, Supplier<T> fetch) {
+        DECODE_POOL.set(pool);
+        try {
+            return fetch.get();
+        } finally {
+            DECODE_POOL.remove();
+        }
+    }
+
     public SkinSourceEnum getSkinSource() {
         return skinSource;
     }
@@ -187,4 +355,14 @@ public abstract class SkinSource {
     public boolean useUUIDWhenRetrieve() {
         return useUUIDWhenRetrieve;
     }
+
+    /**
+     * Whether {@link #getHead(UUID, String, boolean)} uses its {@code name} parameter. Callers only need to resolve
+     * the name of a player, which may touch the server's player data, for sources that do.
+     *
+     * @return {@code true} if heads are requested by name.
+     */
+    public boolean needsName() {
+        return hasUsernameSupport && !useUUIDWhenRetrieve;
+    }
 }
@@ -1,5 +1,11 @@
 package net.minso.chathead.API;
 
+import net.minso.chathead.API.impl.CrafatarSource;
+import net.minso.chathead.API.impl.McHeadsSource;
+import net.minso.chathead.API.impl.MinotarSource;
+import net.minso.chathead.API.impl.MojangSource;
+import net.minso.chathead.API.impl.TextureSource;
+
 /**
  * Enum representing different sources from which to retrieve player skin information.
  * These sources determine where the skin data will be fetched from (e.g., Mojang, Crafatar, Minotar).
@@ -27,7 +33,52 @@ public enum SkinSourceEnum {
      * Represents the source for retrieving player skin information from mc-heads.
      * Skin data will be fetched from the mc-heads service.
      */
-    MCHEADS
+    MCHEADS,
+
+    /**
+     * Represents heads rendered straight from a skin texture on Mojang's texture server, identified by its hash,
+     * such as the heads of NPCs. Not a source of player heads: it can't be selected as the default source.
+     */
+    TEXTURE;
 
     //TODO Add support to get skin from playerprofile
+
+    /**
+     * Creates a {@link SkinSource} retrieving heads from this source.
+     *
+     * @param useUUIDWhenRetrieve If the source should request heads by UUID rather than by name.
+     *                            Ignored by {@link #MOJANG}, which always uses the UUID, and {@link #TEXTURE}.
+     * @return A new SkinSource.
+     */
+    public SkinSource createSource(boolean useUUIDWhenRetrieve) {
+        return switch (this) {
+            case CRAFATAR -> new CrafatarSource(useUUIDWhenRetrieve);
+            case MINOTAR -> new MinotarSource(useUUIDWhenRetrieve);
+            case MCHEADS -> new McHeadsSource(useUUIDWhenRetrieve);
+            case MOJANG -> new MojangSource();
+            case TEXTURE -> new TextureSource();
+        };
+    }
+
+    /**
+     * Indicates whether this source renders the heads of players, i.e. anything but {@link #TEXTURE}.
+     *
+     * @return {@code true} if this source can be selected as the source of player heads.
+     */
+    public boolean isPlayerSource() {
+        return this != TEXTURE;
+    }
+
+    /**
+     * Parses a skin source name, as found in the {@code skin-source} configuration key.
+     *
+     * @param name The case-insensitive name of the source.
+     * @return The matching source, or {@link #MOJANG} if the name is unknown or isn't a {@link #isPlayerSource() player source}.
+     */
+    public static SkinSourceEnum fromName(String name) {
+        for (SkinSourceEnum source : values()) {
+            if (source.isPlayerSource() && source.name().equalsIgnoreCase(name)) return source;
+        }
+        return MOJANG;
+    }
 }
@@ -0,0 +1,93 @@
+package net.minso.chathead.API;
+
+import net.minso.chathead.API.impl.MojangSource;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The {@code SkinTextureTracker} class follows the skins online players currently wear, as published by Mojang's
+ * session server.
+ * <p>
+ * A server only knows the skin a player logged in with, so a skin changed during the session would go unnoticed.
+ * Each {@link #refresh(Collection)} looks up the session profiles of the few online players checked the longest ago,
+ * so every player is checked in turn without hitting Mojang's rate limit. The run stops at the first failed lookup,
+ * such as a rate limited one.
+ * </p>
+ */
+public class SkinTextureTracker {
+
+    /**
+     * The maximum number of session profiles looked up per {@link #refresh(Collection)}.
+     */
+    private static final int MAX_LOOKUPS_PER_RUN = 10;
+
+    private final MojangSource source;
+
+    /**
+     * The last texture hash looked up for every online player.
+     */
+    private final Map<UUID, Checked> checked = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a new {@code SkinTextureTracker}.
+     *
+     * @param source the source whose session server is queried.
+     */
+    public SkinTextureTracker(MojangSource source) {
+        this.source = source;
+    }
+
+    /**
+     * Looks up the current skins of the online players checked the longest ago, and forgets players who left.
+     * Blocks while looking skins up, so it must be called off the main thread.
+     *
+     * @param online the UUIDs of the online players.
+     */
+    public void refresh(Collection<UUID> online) {
+        Set<UUID> onlineSet = new HashSet<>(online);
+        checked.keySet().retainAll(onlineSet);
+
+        List<UUID> due = new ArrayList<>(onlineSet);
+        due.sort(Comparator.comparingLong(uuid -> {
+            Checked entry = checked.get(uuid);
+            return entry != null ? entry.checkedAt() : 0;
+        }));
+
+        for (int i = 0; i < Math.min(MAX_LOOKUPS_PER_RUN, due.size()); i++) {
+            UUID uuid = due.get(i);
+            String skinUrl = source.getSkinUrl(uuid);
+            if (skinUrl == null) return;
+
+            checked.put(uuid, new Checked(textureHash(skinUrl), System.currentTimeMillis()));
+        }
+    }
+
+    /**
+     * @param uuid the UUID of an online player.
+     * @return the hash of the texture the player wore when last checked, or {@code null} if not checked yet.
+     */
+    public @Nullable String getTextureHash(UUID uuid) {
+        Checked entry = checked.get(uuid);
+        return entry != null ? entry.textureHash() : null;
+    }
+
+    /**
+     * @param skinUrl the URL of a skin on {@code textures.minecraft.net}.
+     * @return the hash of the texture, the last segment of its URL.
+     */
+    public static String textureHash(String skinUrl) {
+        return skinUrl.substring(skinUrl.lastIndexOf('/') + 1);
+    }
+
+    private record Checked(String textureHash, long checkedAt) {
+    }
+}
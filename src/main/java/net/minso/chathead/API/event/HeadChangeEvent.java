@@ -0,0 +1,71 @@
+package net.minso.chathead.API.event;
+
+import net.md_5.bungee.api.chat.BaseComponent;
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.UUID;
+
+/**
+ * Called when a cached head is replaced by a different one, typically because the player changed their skin.
+ * <p>
+ * Displays showing the player's head (scoreboards, tab lists, holograms...) can listen to it and update only
+ * what changed. This event is always called asynchronously, from the thread that fetched the new head.
+ * </p>
+ */
+public class HeadChangeEvent extends Event {
+
+    private static final HandlerList HANDLERS = new HandlerList();
+
+    private final UUID uuid;
+    private final boolean overlay;
+    private final BaseComponent[] previousHead;
+    private final BaseComponent[] newHead;
+
+    public HeadChangeEvent(UUID uuid, boolean overlay, BaseComponent[] previousHead, BaseComponent[] newHead) {
+        super(true);
+        this.uuid = uuid;
+        this.overlay = overlay;
+        this.previousHead = previousHead;
+        this.newHead = newHead;
+    }
+
+    /**
+     * @return the UUID of the player whose head changed.
+     */
+    public UUID getUuid() {
+        return uuid;
+    }
+
+    /**
+     * @return {@code true} if the heads were generated with the skin overlay.
+     */
+    public boolean hasOverlay() {
+        return overlay;
+    }
+
+    /**
+     * @return the head that was replaced.
+     */
+    public BaseComponent[] getPreviousHead() {
+        return previousHead;
+    }
+
+    /**
+     * @return the new head, now returned by {@link net.minso.chathead.API.ChatHeadAPI#getHead(UUID, boolean)}.
+     */
+    public BaseComponent[] getNewHead() {
+        return newHead;
+    }
+
+    @NotNull
+    @Override
+    public HandlerList getHandlers() {
+        return HANDLERS;
+    }
+
+    public static HandlerList getHandlerList() {
+        return HANDLERS;
+    }
+}
@@ -0,0 +1,48 @@
+package net.minso.chathead.API.fetch;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link FetchEngine} running every fetch on a plain {@link ExecutorService}.
+ * <p>
+ * Used on platforms without a {@link net.minso.chathead.Utils.PluginScheduler}, such as the proxy,
+ * when virtual threads aren't available.
+ * </p>
+ */
+public class ExecutorFetchEngine implements FetchEngine {
+
+    private final ExecutorService executor;
+    private final String name;
+
+    /**
+     * Creates a new engine.
+     *
+     * @param executor the executor to run fetches on. It is shut down together with the engine.
+     * @param name     a short, human-readable name of the executor.
+     */
+    public ExecutorFetchEngine(ExecutorService executor, String name) {
+        this.executor = executor;
+        this.name = name;
+    }
+
+    @Override
+    public void execute(Runnable fetch) {
+        executor.execute(fetch);
+    }
+
+    @Override
+    public void shutdown() {
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+}
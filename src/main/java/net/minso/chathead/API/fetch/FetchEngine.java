@@ -0,0 +1,50 @@
+package net.minso.chathead.API.fetch;
+
+/**
+ * A {@code FetchEngine} runs the blocking {@link net.minso.chathead.API.SkinSource#getHead} calls scheduled by the
+ * {@link net.minso.chathead.API.HeadCache}.
+ * <p>
+ * Two engines are available, selected with the {@code fetch-engine} configuration key:
+ * <ul>
+ *     <li>{@code VIRTUAL}: one virtual thread per fetch. Only available on Java 21 or newer.</li>
+ *     <li>{@code SCHEDULER}: the server's asynchronous scheduler (Bukkit or Folia), shared with every other plugin.
+ *     {@code BUKKIT} is accepted as an alias.</li>
+ * </ul>
+ * {@code AUTO} (the default) picks {@code VIRTUAL} whenever the runtime supports it. Engines are created by the
+ * owning plugin ({@link net.minso.chathead.API.ChatHeadAPI} or the proxy plugin), so this package doesn't depend on
+ * any server API.
+ * </p>
+ */
+public interface FetchEngine {
+
+    /**
+     * Runs the given fetch asynchronously.
+     *
+     * @param fetch the fetch to run.
+     */
+    void execute(Runnable fetch);
+
+    /**
+     * Cancels all running fetches and stops accepting new ones. Called when the plugin is disabled.
+     */
+    void shutdown();
+
+    /**
+     * @return a short, human-readable name of this engine.
+     */
+    String getName();
+
+    /**
+     * Retrieves the number of fetches run at the same time when {@code fetch-max-concurrency} is {@code 0}
+     * (automatic, the default).
+     * <p>
+     * Bounded for every engine: however cheap a waiting fetch is, Mojang and the other skin APIs rate limit servers
+     * sending too many requests at once, e.g. during a chat storm or a bulk prefetch.
+     * </p>
+     *
+     * @return the default maximum number of concurrent fetches.
+     */
+    default int getDefaultMaxConcurrency() {
+        return 16;
+    }
+}
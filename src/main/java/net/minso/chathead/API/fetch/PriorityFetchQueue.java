@@ -0,0 +1,179 @@
+package net.minso.chathead.API.fetch;
+
+import net.minso.chathead.API.FetchPriority;
+import net.minso.chathead.API.metrics.HeadMetrics;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Queues fetches in front of a {@link FetchEngine}, running at most a fixed number at a time and always starting
+ * the highest {@link FetchPriority} first. Within a priority, fetches start in submission order.
+ * <p>
+ * A queued fetch can be {@link Ticket#promote promoted} when a more urgent request for the same head comes in, so a
+ * player who starts chatting doesn't wait behind the placeholder lookup that first requested their head.
+ * </p>
+ */
+public class PriorityFetchQueue {
+
+    private static final FetchPriority[] PRIORITIES = FetchPriority.values();
+
+    private final FetchEngine engine;
+    private final int maxConcurrency;
+    private final HeadMetrics metrics;
+
+    private final Map<FetchPriority, Queue<Ticket>> queues = new EnumMap<>(FetchPriority.class);
+
+    /**
+     * The number of unstarted fetches per priority, by their current priority.
+     */
+    private final AtomicIntegerArray queued = new AtomicIntegerArray(PRIORITIES.length);
+
+    private final AtomicInteger running = new AtomicInteger();
+
+    /**
+     * Creates a new queue.
+     *
+     * @param engine         the engine running the fetches.
+     * @param maxConcurrency the maximum number of fetches running at the same time.
+     * @param metrics        the metrics receiving per-priority queue statistics.
+     */
+    public PriorityFetchQueue(FetchEngine engine, int maxConcurrency, HeadMetrics metrics) {
+        this.engine = engine;
+        this.maxConcurrency = Math.max(1, maxConcurrency);
+        this.metrics = metrics;
+        for (FetchPriority priority : PRIORITIES) {
+            queues.put(priority, new ConcurrentLinkedQueue<>());
+        }
+        metrics.bindQueueGauge(priority -> queued.get(priority.ordinal()));
+    }
+
+    /**
+     * Queues a fetch.
+     *
+     * @param priority   the priority of the fetch.
+     * @param fetch      the fetch to run.
+     * @param onRejected run instead of the fetch if the engine refused it, e.g. because it has been shut down.
+     * @return a ticket allowing to promote the fetch while it is queued.
+     */
+    public Ticket submit(FetchPriority priority, Runnable fetch, Runnable onRejected) {
+        Ticket ticket = new Ticket(priority, fetch, onRejected);
+        queued.incrementAndGet(priority.ordinal());
+        queues.get(priority).add(ticket);
+        drain();
+        return ticket;
+    }
+
+    /**
+     * @param priority a priority.
+     * @return the number of fetches of that priority waiting to start.
+     */
+    public int getQueued(FetchPriority priority) {
+        return queued.get(priority.ordinal());
+    }
+
+    /**
+     * Starts queued fetches while fewer than {@code maxConcurrency} are running.
+     */
+    private void drain() {
+        while (true) {
+            int current = running.get();
+            if (current >= maxConcurrency) return;
+            if (!running.compareAndSet(current, current + 1)) continue;
+
+            Ticket ticket = poll();
+            if (ticket == null) {
+                running.decrementAndGet();
+                // A fetch may have been queued after poll() and before the decrement, seeing no free slot.
+                if (isEmpty()) return;
+                continue;
+            }
+
+            try {
+                engine.execute(() -> {
+                    try {
+                        ticket.fetch.run();
+                    } finally {
+                        running.decrementAndGet();
+                        drain();
+                    }
+                });
+            } catch (RuntimeException e) {
+                // Not only RejectedExecutionException: a Bukkit scheduler used during disable throws its own exception.
+                // Either way the permit is given back, or the queue would eventually stop fetching.
+                running.decrementAndGet();
+                ticket.onRejected.run();
+            }
+        }
+    }
+
+    /**
+     * Claims the oldest fetch of the highest non-empty priority.
+     */
+    private Ticket poll() {
+        for (FetchPriority priority : PRIORITIES) {
+            Queue<Ticket> queue = queues.get(priority);
+            Ticket ticket;
+            while ((ticket = queue.poll()) != null) {
+                // A promoted ticket is in several queues; only the first poll claims it.
+                if (ticket.claim()) return ticket;
+            }
+        }
+        return null;
+    }
+
+    private boolean isEmpty() {
+        for (Queue<Ticket> queue : queues.values()) {
+            if (!queue.isEmpty()) return false;
+        }
+        return true;
+    }
+
+    /**
+     * A queued fetch.
+     */
+    public class Ticket {
+        private final Runnable fetch;
+        private final Runnable onRejected;
+        private final long queuedAt = System.nanoTime();
+        private final AtomicBoolean claimed = new AtomicBoolean();
+        private FetchPriority priority;
+
+        private Ticket(FetchPriority priority, Runnable fetch, Runnable onRejected) {
+            this.priority = priority;
+            this.fetch = fetch;
+            this.onRejected = onRejected;
+        }
+
+        /**
+         * Moves the fetch to a higher priority, if it hasn't started yet. Lower priorities are ignored.
+         *
+         * @param newPriority the new priority.
+         */
+        public void promote(FetchPriority newPriority) {
+            synchronized (this) {
+                if (claimed.get() || newPriority.compareTo(priority) >= 0) return;
+
+                queued.decrementAndGet(priority.ordinal());
+                queued.incrementAndGet(newPriority.ordinal());
+                priority = newPriority;
+            }
+            queues.get(newPriority).add(this);
+            drain();
+        }
+
+        private boolean claim() {
+            synchronized (this) {
+                if (!claimed.compareAndSet(false, true)) return false;
+                queued.decrementAndGet(priority.ordinal());
+            }
+            metrics.recordQueueWait(priority, System.nanoTime() - queuedAt);
+            return true;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package net.minso.chathead.API.fetch;
+
+import net.minso.chathead.Utils.PluginScheduler;
+
+/**
+ * {@link FetchEngine} running every fetch as an asynchronous task of the server's scheduler:
+ * the Bukkit async pool, or Folia's async scheduler on Folia.
+ */
+public class SchedulerFetchEngine implements FetchEngine {
+
+    private final PluginScheduler scheduler;
+
+    public SchedulerFetchEngine(PluginScheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    public void execute(Runnable fetch) {
+        scheduler.runAsync(fetch);
+    }
+
+    @Override
+    public void shutdown() {
+        scheduler.cancelAll();
+    }
+
+    @Override
+    public String getName() {
+        return scheduler.getName() + " async scheduler";
+    }
+}
@@ -0,0 +1,77 @@
+package net.minso.chathead.API.fetch;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * {@link FetchEngine} running every fetch on its own virtual thread.
+ * <p>
+ * A fetch blocked on network I/O unmounts from its carrier thread, so thousands of in-flight lookups
+ * during a join flood don't tie up platform threads or the server's async pool. On shutdown, every running
+ * fetch is interrupted, which also aborts any socket read it is blocked on.
+ * </p>
+ * <p>
+ * Waiting fetches are cheap, but the skin APIs still rate limit the server, so the number of fetches running at the
+ * same time keeps the bounded {@link FetchEngine#getDefaultMaxConcurrency() default}.
+ * </p>
+ * <p>
+ * The plugin is compiled for Java 17, so the Java 21 virtual thread API is looked up reflectively.
+ * </p>
+ */
+public class VirtualThreadFetchEngine implements FetchEngine {
+
+    private final Logger logger;
+    private final ExecutorService executor;
+
+    /**
+     * Creates a new virtual thread engine.
+     *
+     * @param logger the logger of the plugin owning the engine.
+     * @throws ReflectiveOperationException if the virtual thread API isn't available.
+     */
+    public VirtualThreadFetchEngine(Logger logger) throws ReflectiveOperationException {
+        this.logger = logger;
+
+        // Thread.ofVirtual().name("ChatHead-Fetch-", 0).factory()
+        Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+        Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+        builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, "ChatHead-Fetch-", 0L);
+        ThreadFactory factory = (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+
+        // Executors.newThreadPerTaskExecutor(factory)
+        this.executor = (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                .invoke(null, factory);
+    }
+
+    /**
+     * @return {@code true} if the running JVM supports virtual threads.
+     */
+    public static boolean isSupported() {
+        return Runtime.version().feature() >= 21;
+    }
+
+    @Override
+    public void execute(Runnable fetch) {
+        executor.execute(fetch);
+    }
+
+    @Override
+    public void shutdown() {
+        executor.shutdownNow();
+        try {
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                logger.warning("Some head fetches did not stop within 5 seconds.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "Virtual threads";
+    }
+}
@@ -3,7 +3,10 @@ package net.minso.chathead.API.impl;
 import net.md_5.bungee.api.chat.BaseComponent;
 import net.minso.chathead.API.SkinSource;
 import net.minso.chathead.API.SkinSourceEnum;
-import org.bukkit.OfflinePlayer;
+import net.minso.chathead.API.jfr.HeadFetchStage;
+import net.minso.chathead.API.jfr.HeadFetchStageEvent;
+import net.minso.chathead.API.jfr.HeadTrace;
+import org.jetbrains.annotations.Nullable;
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
@@ -14,31 +17,66 @@ import java.io.InputStreamReader;
 import java.net.HttpURLConnection;
 import java.net.URL;
 import java.util.Base64;
+import java.util.UUID;
 
 /**
  * SkinSource implementation to retrieve heads from Mojang.
  */
 public class MojangSource extends SkinSource {
 
+    /**
+     * The default base URL of Mojang's profile API, used to resolve names to UUIDs.
+     */
+    public static final String PROFILE_API_URL = "https://api.mojang.com";
+
+    /**
+     * The default base URL of Mojang's session server, used to retrieve skin textures.
+     */
+    public static final String SESSION_SERVER_URL = "https://sessionserver.mojang.com";
+
+    /**
+     * Returned by {@link #getPlayerSkinFromMojang(String)} when the skin URL couldn't be retrieved.
+     */
+    private static final String NO_SKIN_URL = "Unable to retrieve player skin URL.";
+
+    private final String profileApiUrl;
+
+    private final String sessionServerUrl;
 
     public MojangSource(boolean useUUIDWhenRetrieve) {
-        super(SkinSourceEnum.MOJANG, true, useUUIDWhenRetrieve);
+        this(useUUIDWhenRetrieve, PROFILE_API_URL, SESSION_SERVER_URL);
     }
 
     public MojangSource() {
         super(SkinSourceEnum.MOJANG, true);
+        this.profileApiUrl = PROFILE_API_URL;
+        this.sessionServerUrl = SESSION_SERVER_URL;
+    }
+
+    /**
+     * Create a MojangSource talking to different endpoints, e.g. a caching mirror of Mojang's API
+     * or a local stub server for load testing.
+     *
+     * @param useUUIDWhenRetrieve If it uses the UUID to request the head.
+     * @param profileApiUrl       The base URL replacing {@value #PROFILE_API_URL}.
+     * @param sessionServerUrl    The base URL replacing {@value #SESSION_SERVER_URL}.
+     */
+    public MojangSource(boolean useUUIDWhenRetrieve, String profileApiUrl, String sessionServerUrl) {
+        super(SkinSourceEnum.MOJANG, true, useUUIDWhenRetrieve);
+        this.profileApiUrl = profileApiUrl;
+        this.sessionServerUrl = sessionServerUrl;
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public BaseComponent[] getHead(OfflinePlayer player, boolean overlay) {
+    public BaseComponent[] getHead(UUID uuid, @Nullable String name, boolean overlay) {
 
-        if (useUUIDWhenRetrieve()) {
-            return toBaseComponent(getPixelColorsFromSkin(getPlayerSkinFromMojang(player.getUniqueId().toString()), overlay));
+        if (useUUIDWhenRetrieve() || name == null) {
+            return toBaseComponent(getPixelColorsFromSkin(getPlayerSkinFromMojang(uuid.toString()), overlay));
         } else {
-            return toBaseComponent(getPixelColorsFromSkin(getPlayerSkinFromMojang(getUUIDFromName(player)), overlay));
+            return toBaseComponent(getPixelColorsFromSkin(getPlayerSkinFromMojang(getUUIDFromName(name)), overlay));
         }
 
     }
@@ -46,13 +84,16 @@ public class MojangSource extends SkinSource {
     /**
      * Get the id by knowing the player's name.
      *
-     * @param offlinePlayer The player.
+     * @param name The player's name.
      * @return the id by knowing the player's name.
      */
-    public String getUUIDFromName(OfflinePlayer offlinePlayer) {
+    public String getUUIDFromName(String name) {
+        HeadFetchStageEvent event = HeadTrace.beginStage(HeadFetchStage.NAME_LOOKUP);
+        int bytes = 0;
+        boolean success = false;
         try {
             // Construct the URL for fetching player's profile information from Mojang's session server
-            URL url = new URL("https://api.mojang.com/users/profiles/minecraft/" + offlinePlayer.getName());
+            URL url = new URL(profileApiUrl + "/users/profiles/minecraft/" + name);
             HttpURLConnection connection = (HttpURLConnection) url.openConnection();
             connection.setRequestMethod("GET");
 
@@ -66,18 +107,35 @@ public class MojangSource extends SkinSource {
                 reader.close(); // Close the reader
                 // Parse the JSON response
                 String jsonResponse = response.toString();
+                bytes = jsonResponse.length();
                 JSONObject jsonObject = new JSONObject(jsonResponse);
-                return jsonObject.getString("id");
+                String id = jsonObject.getString("id");
+                success = true;
+                return id;
 
             }
         } catch (IOException | JSONException e) {
             e.printStackTrace();
             return "";
+        } finally {
+            HeadTrace.endStage(event, bytes, success);
         }
 
     }
 
 
+    /**
+     * Retrieves the URL of the skin a player currently wears from Mojang's session server.
+     *
+     * @param uuid The UUID of the player.
+     * @return The URL of the player's skin, ending with the hash of its texture, or {@code null} if it couldn't be
+     * retrieved.
+     */
+    public @Nullable String getSkinUrl(UUID uuid) {
+        String skinUrl = getPlayerSkinFromMojang(uuid.toString());
+        return NO_SKIN_URL.equals(skinUrl) ? null : skinUrl;
+    }
+
     /**
      * Retrieves the URL of the players skin hosted on Mojangs session server.
      * The function sends a GET request to Mojangs session server with the provided players UUID,
@@ -87,9 +145,12 @@ public class MojangSource extends SkinSource {
      * @return A string representing the URL of the player's skin.
      */
     private String getPlayerSkinFromMojang(String uuid) {
+        HeadFetchStageEvent event = HeadTrace.beginStage(HeadFetchStage.PROFILE);
+        int bytes = 0;
+        boolean success = false;
         try {
             // Construct the URL for fetching player's profile information from Mojang's session server
-            URL url = new URL("https://sessionserver.mojang.com/session/minecraft/profile/" + uuid);
+            URL url = new URL(sessionServerUrl + "/session/minecraft/profile/" + uuid);
             HttpURLConnection connection = (HttpURLConnection) url.openConnection();
             connection.setRequestMethod("GET");
 
@@ -103,6 +164,7 @@ public class MojangSource extends SkinSource {
                 reader.close(); // Close the reader
                 // Parse the JSON response
                 String jsonResponse = response.toString();
+                bytes = jsonResponse.length();
                 JSONObject jsonObject = new JSONObject(jsonResponse);
                 JSONArray propertiesArray = jsonObject.getJSONArray("properties");
 
@@ -116,14 +178,18 @@ public class MojangSource extends SkinSource {
                         String decodedValue = new String(decodedBytes);
                         JSONObject textureJson = new JSONObject(decodedValue);
                         // Extract and return the URL of the player's skin
-                        return textureJson.getJSONObject("textures").getJSONObject("SKIN").getString("url");
+                        String skinUrl = textureJson.getJSONObject("textures").getJSONObject("SKIN").getString("url");
+                        success = true;
+                        return skinUrl;
                     }
                 }
             }
         } catch (IOException | JSONException e) {
             e.printStackTrace();
+        } finally {
+            HeadTrace.endStage(event, bytes, success);
         }
-        return "Unable to retrieve player skin URL."; //TODO Add error handling
+        return NO_SKIN_URL; //TODO Add error handling
     }
 
 
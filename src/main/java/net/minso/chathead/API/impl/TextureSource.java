@@ -0,0 +1,92 @@
+package net.minso.chathead.API.impl;
+
+import net.md_5.bungee.api.chat.BaseComponent;
+import net.minso.chathead.API.SkinSource;
+import net.minso.chathead.API.SkinSourceEnum;
+import org.jetbrains.annotations.Nullable;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * SkinSource implementation to render heads straight from a skin texture, without any profile lookup, e.g. for NPCs,
+ * custom skulls and holograms that don't belong to a real player.
+ * <p>
+ * Heads are identified by the hash of their texture on Mojang's texture server. Each hash is given a UUID of its own
+ * by {@link #getTextureUuid(String)}, so texture heads are cached like any other head and shared by every NPC using
+ * the same texture. The hash itself is passed as the {@code name} of {@link #getHead(UUID, String, boolean)}.
+ * </p>
+ */
+public class TextureSource extends SkinSource {
+
+    /**
+     * The base URL of Mojang's texture server.
+     */
+    public static final String TEXTURE_SERVER_URL = "https://textures.minecraft.net/texture/";
+
+    private static final Pattern TEXTURE_HASH = Pattern.compile("[0-9a-fA-F]{16,64}");
+
+    public TextureSource() {
+        super(SkinSourceEnum.TEXTURE, true, false);
+    }
+
+    /**
+     * Renders the head of a skin texture.
+     *
+     * @param uuid    the UUID of the texture, see {@link #getTextureUuid(String)}.
+     * @param name    the hash of the texture.
+     * @param overlay A boolean value indicating whether to apply overlay on the head.
+     * @return An array of BaseComponents representing the head.
+     * @throws IllegalArgumentException if {@code name} isn't a texture hash.
+     */
+    @Override
+    public BaseComponent[] getHead(UUID uuid, @Nullable String name, boolean overlay) {
+        if (name == null || !TEXTURE_HASH.matcher(name).matches()) {
+            throw new IllegalArgumentException("Not a texture hash: " + name);
+        }
+        return toBaseComponent(getPixelColorsFromSkin(TEXTURE_SERVER_URL + name, overlay));
+    }
+
+    /**
+     * Extracts the texture hash from any of the forms a skin texture is commonly given in.
+     *
+     * @param texture the Base64 value of a {@code textures} profile property, the URL of a texture on Mojang's
+     *                texture server, or the hash itself.
+     * @return the lowercase hash of the texture.
+     * @throws IllegalArgumentException if {@code texture} is none of these.
+     */
+    public static String parseTextureHash(String texture) {
+        String value = texture.trim();
+        if (value.startsWith("http://") || value.startsWith("https://")) {
+            value = value.substring(value.lastIndexOf('/') + 1);
+        } else if (!TEXTURE_HASH.matcher(value).matches()) {
+            try {
+                JSONObject textures = new JSONObject(new String(Base64.getDecoder().decode(value), StandardCharsets.UTF_8));
+                String url = textures.getJSONObject("textures").getJSONObject("SKIN").getString("url");
+                value = url.substring(url.lastIndexOf('/') + 1);
+            } catch (JSONException e) {
+                throw new IllegalArgumentException("Not a textures property: " + texture, e);
+            }
+        }
+
+        if (!TEXTURE_HASH.matcher(value).matches()) {
+            throw new IllegalArgumentException("Not a texture hash: " + value);
+        }
+        return value.toLowerCase();
+    }
+
+    /**
+     * Derives the UUID heads of a texture are cached by. Distinct from any player's UUID, as it is a version 3 UUID
+     * in a namespace of its own.
+     *
+     * @param textureHash the lowercase hash of the texture.
+     * @return the UUID of the texture.
+     */
+    public static UUID getTextureUuid(String textureHash) {
+        return UUID.nameUUIDFromBytes(("Texture:" + textureHash).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,31 @@
+package net.minso.chathead.API.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JDK Flight Recorder event spanning a complete {@link net.minso.chathead.API.SkinSource#getHead} call.
+ */
+@Name("net.minso.chathead.HeadFetch")
+@Label("Head Fetch")
+@Category({"ChatHeadFont", "Head Fetch"})
+@Description("Fetching and rendering a player head from a skin source")
+@StackTrace(false)
+public class HeadFetchEvent extends Event {
+
+    @Label("Player UUID")
+    public String uuid;
+
+    @Label("Source")
+    public String source;
+
+    @Label("Overlay")
+    public boolean overlay;
+
+    @Label("Outcome")
+    public String outcome;
+}
@@ -0,0 +1,36 @@
+package net.minso.chathead.API.jfr;
+
+/**
+ * The stages of the head fetch pipeline reported through {@link HeadFetchStageEvent}.
+ */
+public enum HeadFetchStage {
+    /**
+     * Resolving a player name to a UUID (e.g. Mojang's profile API).
+     */
+    NAME_LOOKUP,
+
+    /**
+     * Requesting the player's profile and textures property from the session server.
+     */
+    PROFILE,
+
+    /**
+     * Downloading the skin or avatar image.
+     */
+    TEXTURE_DOWNLOAD,
+
+    /**
+     * Decoding the downloaded PNG into an image.
+     */
+    DECODE,
+
+    /**
+     * Extracting the 8x8 face (and overlay) pixel colors from the image.
+     */
+    EXTRACT,
+
+    /**
+     * Building the {@link net.md_5.bungee.api.chat.BaseComponent} grid from the pixel colors.
+     */
+    RENDER
+}
@@ -0,0 +1,36 @@
+package net.minso.chathead.API.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JDK Flight Recorder event spanning a single {@link HeadFetchStage} of a head fetch.
+ */
+@Name("net.minso.chathead.HeadFetchStage")
+@Label("Head Fetch Stage")
+@Category({"ChatHeadFont", "Head Fetch"})
+@Description("A single stage of fetching and rendering a player head")
+@StackTrace(false)
+public class HeadFetchStageEvent extends Event {
+
+    @Label("Player UUID")
+    public String uuid;
+
+    @Label("Source")
+    public String source;
+
+    @Label("Stage")
+    public String stage;
+
+    @Label("Bytes")
+    @DataAmount
+    public long bytes;
+
+    @Label("Outcome")
+    public String outcome;
+}
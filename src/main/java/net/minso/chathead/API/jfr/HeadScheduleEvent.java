@@ -0,0 +1,26 @@
+package net.minso.chathead.API.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JDK Flight Recorder event spanning the time a head fetch waits between being scheduled by the
+ * {@link net.minso.chathead.API.HeadCache} and starting on a worker thread.
+ */
+@Name("net.minso.chathead.HeadSchedule")
+@Label("Head Fetch Scheduling Delay")
+@Category({"ChatHeadFont", "Head Fetch"})
+@Description("Time a head fetch spent queued before it started running")
+@StackTrace(false)
+public class HeadScheduleEvent extends Event {
+
+    @Label("Player UUID")
+    public String uuid;
+
+    @Label("Source")
+    public String source;
+}
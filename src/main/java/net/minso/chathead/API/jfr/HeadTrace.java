@@ -0,0 +1,127 @@
+package net.minso.chathead.API.jfr;
+
+import net.minso.chathead.API.SkinSourceEnum;
+
+import java.util.UUID;
+
+/**
+ * Helper for emitting the ChatHeadFont JDK Flight Recorder events.
+ * <p>
+ * The {@link net.minso.chathead.API.HeadCache} opens a fetch with {@link #beginFetch(UUID, SkinSourceEnum, boolean)}
+ * on the worker thread; every stage reported through {@link #beginStage(HeadFetchStage)} on that thread
+ * until {@link #endFetch(HeadFetchEvent, String)} inherits its UUID and source, so the
+ * {@link net.minso.chathead.API.SkinSource} implementations don't need to pass them around.
+ * </p>
+ * <p>
+ * When no recording is active, the events are never committed and the cost of each call is a
+ * short-lived object and a couple of field writes.
+ * </p>
+ */
+public final class HeadTrace {
+
+    public static final String SUCCESS = "SUCCESS";
+    public static final String FAILURE = "FAILURE";
+
+    private static final ThreadLocal<HeadFetchEvent> CURRENT_FETCH = new ThreadLocal<>();
+
+    private HeadTrace() {
+    }
+
+    /**
+     * Starts measuring the scheduling delay of a head fetch. Call on the scheduling thread.
+     *
+     * @param uuid   the UUID of the player whose head is being fetched.
+     * @param source the source the head will be fetched from.
+     * @return the started event, to be passed to {@link #endSchedule(HeadScheduleEvent)} on the worker thread.
+     */
+    public static HeadScheduleEvent beginSchedule(UUID uuid, SkinSourceEnum source) {
+        HeadScheduleEvent event = new HeadScheduleEvent();
+        if (event.isEnabled()) {
+            event.uuid = uuid.toString();
+            event.source = source.name();
+            event.begin();
+        }
+        return event;
+    }
+
+    /**
+     * Ends and commits a scheduling delay measurement. Call as the first thing on the worker thread.
+     *
+     * @param event the event returned by {@link #beginSchedule(UUID, SkinSourceEnum)}.
+     */
+    public static void endSchedule(HeadScheduleEvent event) {
+        event.end();
+        if (event.shouldCommit()) event.commit();
+    }
+
+    /**
+     * Opens a head fetch on the current thread.
+     *
+     * @param uuid    the UUID of the player whose head is being fetched.
+     * @param source  the source the head is fetched from.
+     * @param overlay whether the overlay was requested.
+     * @return the started event, to be passed to {@link #endFetch(HeadFetchEvent, String)}.
+     */
+    public static HeadFetchEvent beginFetch(UUID uuid, SkinSourceEnum source, boolean overlay) {
+        HeadFetchEvent event = new HeadFetchEvent();
+        if (event.isEnabled()) {
+            event.uuid = uuid.toString();
+            event.source = source.name();
+            event.overlay = overlay;
+            event.begin();
+        }
+        CURRENT_FETCH.set(event);
+        return event;
+    }
+
+    /**
+     * Closes the head fetch opened on the current thread.
+     *
+     * @param event   the event returned by {@link #beginFetch(UUID, SkinSourceEnum, boolean)}.
+     * @param outcome the outcome of the fetch, e.g. {@link #SUCCESS} or a failure cause.
+     */
+    public static void endFetch(HeadFetchEvent event, String outcome) {
+        CURRENT_FETCH.remove();
+        event.end();
+        if (event.shouldCommit()) {
+            event.outcome = outcome;
+            event.commit();
+        }
+    }
+
+    /**
+     * Starts measuring a stage of the head fetch running on the current thread.
+     *
+     * @param stage the pipeline stage.
+     * @return the started event, to be passed to {@link #endStage(HeadFetchStageEvent, long, boolean)}.
+     */
+    public static HeadFetchStageEvent beginStage(HeadFetchStage stage) {
+        HeadFetchStageEvent event = new HeadFetchStageEvent();
+        if (event.isEnabled()) {
+            HeadFetchEvent fetch = CURRENT_FETCH.get();
+            if (fetch != null) {
+                event.uuid = fetch.uuid;
+                event.source = fetch.source;
+            }
+            event.stage = stage.name();
+            event.begin();
+        }
+        return event;
+    }
+
+    /**
+     * Ends and commits a stage measurement.
+     *
+     * @param event   the event returned by {@link #beginStage(HeadFetchStage)}.
+     * @param bytes   the number of bytes transferred or processed by the stage, {@code 0} if not applicable.
+     * @param success whether the stage completed successfully.
+     */
+    public static void endStage(HeadFetchStageEvent event, long bytes, boolean success) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.bytes = bytes;
+            event.outcome = success ? SUCCESS : FAILURE;
+            event.commit();
+        }
+    }
+}
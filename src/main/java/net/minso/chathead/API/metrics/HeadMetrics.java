@@ -0,0 +1,255 @@
+package net.minso.chathead.API.metrics;
+
+import net.minso.chathead.API.FetchPriority;
+import net.minso.chathead.API.SkinSourceEnum;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.ToLongFunction;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The {@code HeadMetrics} class collects instrumentation for the {@link net.minso.chathead.API.HeadCache}
+ * and the {@link net.minso.chathead.API.SkinSource} fetches it schedules.
+ * <p>
+ * All counters are {@link LongAdder}s and the latency histograms are lock-free, so recording a metric
+ * on the chat or main thread costs only a few uncontended atomic operations. Gauges (queue depth,
+ * entry count and bytes) are read lazily from the cache when a snapshot is taken.
+ * </p>
+ */
+public class HeadMetrics {
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder staleHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder sharedHits = new LongAdder();
+
+    /**
+     * Per-source statistics, populated once for every {@link SkinSourceEnum} and never modified afterwards.
+     */
+    private final Map<SkinSourceEnum, SourceMetrics> sources = new EnumMap<>(SkinSourceEnum.class);
+
+    /**
+     * Per-priority fetch queue statistics, populated once for every {@link FetchPriority}.
+     */
+    private final Map<FetchPriority, QueueMetrics> queues = new EnumMap<>(FetchPriority.class);
+
+    private final List<MetricsExporter> exporters = new CopyOnWriteArrayList<>();
+
+    private volatile LongSupplier queueDepth = () -> 0;
+    private volatile LongSupplier entryCount = () -> 0;
+    private volatile LongSupplier entryBytes = () -> 0;
+    private volatile ToLongFunction<FetchPriority> queued = priority -> 0;
+
+    /**
+     * Constructs a new, empty {@code HeadMetrics} instance.
+     */
+    public HeadMetrics() {
+        for (SkinSourceEnum source : SkinSourceEnum.values()) {
+            sources.put(source, new SourceMetrics());
+        }
+        for (FetchPriority priority : FetchPriority.values()) {
+            queues.put(priority, new QueueMetrics());
+        }
+    }
+
+    /**
+     * Records a lookup answered with a fresh cached head.
+     */
+    public void recordHit() {
+        hits.increment();
+    }
+
+    /**
+     * Records a lookup answered with an expired head while a refresh is pending.
+     */
+    public void recordStaleHit() {
+        staleHits.increment();
+    }
+
+    /**
+     * Records a lookup for which no head was cached.
+     */
+    public void recordMiss() {
+        misses.increment();
+    }
+
+    /**
+     * Records a fetch answered by the shared cache tier instead of the skin source.
+     */
+    public void recordSharedHit() {
+        sharedHits.increment();
+    }
+
+    /**
+     * Records a successful fetch.
+     *
+     * @param source the source the head was fetched from.
+     * @param nanos  the duration of the fetch in nanoseconds.
+     */
+    public void recordFetch(SkinSourceEnum source, long nanos) {
+        SourceMetrics metrics = sources.get(source);
+        metrics.fetches.increment();
+        metrics.latency.recordNanos(nanos);
+    }
+
+    /**
+     * Records a failed fetch.
+     *
+     * @param source the source the head was requested from.
+     * @param cause  a short description of the failure, such as the exception's simple name.
+     * @param nanos  the time spent before the fetch failed, in nanoseconds.
+     */
+    public void recordFailure(SkinSourceEnum source, String cause, long nanos) {
+        SourceMetrics metrics = sources.get(source);
+        metrics.fetches.increment();
+        metrics.latency.recordNanos(nanos);
+        metrics.failures.computeIfAbsent(cause, key -> new LongAdder()).increment();
+    }
+
+    /**
+     * Records a fetch leaving the queue to start.
+     *
+     * @param priority the priority the fetch had when it started.
+     * @param nanos    the time the fetch spent queued, in nanoseconds.
+     */
+    public void recordQueueWait(FetchPriority priority, long nanos) {
+        QueueMetrics metrics = queues.get(priority);
+        metrics.started.increment();
+        metrics.wait.recordNanos(nanos);
+    }
+
+    /**
+     * Binds the per-priority queue length gauge to its live value.
+     *
+     * @param queued supplies the number of fetches of a priority waiting to start.
+     */
+    public void bindQueueGauge(ToLongFunction<FetchPriority> queued) {
+        this.queued = queued;
+    }
+
+    /**
+     * Binds the gauges reported by this instance to their live values.
+     *
+     * @param queueDepth supplies the number of pending fetches.
+     * @param entryCount supplies the number of cached heads.
+     * @param entryBytes supplies the estimated size of the cached heads in bytes.
+     */
+    public void bindGauges(LongSupplier queueDepth, LongSupplier entryCount, LongSupplier entryBytes) {
+        this.queueDepth = queueDepth;
+        this.entryCount = entryCount;
+        this.entryBytes = entryBytes;
+    }
+
+    /**
+     * Returns the latency histogram of the given source.
+     *
+     * @param source the skin source.
+     * @return the live histogram of fetch latencies for {@code source}.
+     */
+    public LatencyHistogram getLatency(SkinSourceEnum source) {
+        return sources.get(source).latency;
+    }
+
+    /**
+     * Takes an immutable snapshot of all metrics.
+     *
+     * @return a new {@link MetricsSnapshot}.
+     */
+    public MetricsSnapshot snapshot() {
+        Map<SkinSourceEnum, MetricsSnapshot.SourceSnapshot> sourceSnapshots = new EnumMap<>(SkinSourceEnum.class);
+        sources.forEach((source, metrics) -> {
+            Map<String, Long> failures = new TreeMap<>();
+            metrics.failures.forEach((cause, count) -> failures.put(cause, count.sum()));
+            sourceSnapshots.put(source, new MetricsSnapshot.SourceSnapshot(
+                    metrics.fetches.sum(),
+                    Collections.unmodifiableMap(failures),
+                    metrics.latency.getPercentileMicros(50),
+                    metrics.latency.getPercentileMicros(99),
+                    metrics.latency.getMaxMicros()));
+        });
+
+        Map<FetchPriority, MetricsSnapshot.QueueSnapshot> queueSnapshots = new EnumMap<>(FetchPriority.class);
+        queues.forEach((priority, metrics) -> queueSnapshots.put(priority, new MetricsSnapshot.QueueSnapshot(
+                queued.applyAsLong(priority),
+                metrics.started.sum(),
+                metrics.wait.getPercentileMicros(50),
+                metrics.wait.getPercentileMicros(99),
+                metrics.wait.getMaxMicros())));
+
+        return new MetricsSnapshot(
+                hits.sum(),
+                staleHits.sum(),
+                misses.sum(),
+                sharedHits.sum(),
+                queueDepth.getAsLong(),
+                entryCount.getAsLong(),
+                entryBytes.getAsLong(),
+                Collections.unmodifiableMap(sourceSnapshots),
+                Collections.unmodifiableMap(queueSnapshots));
+    }
+
+    /**
+     * Registers an exporter that will periodically receive snapshots.
+     *
+     * @param exporter the exporter to register.
+     */
+    public void registerExporter(MetricsExporter exporter) {
+        exporters.add(exporter);
+    }
+
+    /**
+     * Unregisters a previously registered exporter.
+     *
+     * @param exporter the exporter to remove.
+     */
+    public void unregisterExporter(MetricsExporter exporter) {
+        exporters.remove(exporter);
+    }
+
+    /**
+     * Hands a snapshot to every registered exporter, unless there are none.
+     * <p>
+     * Called periodically by the owning platform, at the {@code metrics-export-interval-seconds} interval.
+     * </p>
+     *
+     * @param logger the logger to report failing exporters to.
+     */
+    public void export(Logger logger) {
+        if (exporters.isEmpty()) return;
+
+        MetricsSnapshot snapshot = snapshot();
+        for (MetricsExporter exporter : exporters) {
+            try {
+                exporter.export(snapshot);
+            } catch (RuntimeException e) {
+                logger.log(Level.WARNING, "Metrics exporter " + exporter.getClass().getName() + " failed", e);
+            }
+        }
+    }
+
+    /**
+     * Live statistics of a single skin source.
+     */
+    private static class SourceMetrics {
+        private final LongAdder fetches = new LongAdder();
+        private final Map<String, LongAdder> failures = new ConcurrentHashMap<>();
+        private final LatencyHistogram latency = new LatencyHistogram();
+    }
+
+    /**
+     * Live statistics of a single fetch priority.
+     */
+    private static class QueueMetrics {
+        private final LongAdder started = new LongAdder();
+        private final LatencyHistogram wait = new LatencyHistogram();
+    }
+}
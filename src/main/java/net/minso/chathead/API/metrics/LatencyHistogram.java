@@ -0,0 +1,128 @@
+package net.minso.chathead.API.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free, HDR-style latency histogram.
+ * <p>
+ * Values are recorded in microseconds into log-linear buckets: every power of two is split into
+ * {@value #SUB_BUCKETS} linear sub-buckets, which keeps the relative error of any reported
+ * percentile below roughly 6% while using a fixed amount of memory regardless of the number of
+ * recorded samples.
+ * </p>
+ */
+public class LatencyHistogram {
+
+    /**
+     * Number of bits used for the linear sub-buckets of each power of two.
+     */
+    private static final int SUB_BUCKET_BITS = 4;
+
+    /**
+     * Number of linear sub-buckets per power of two.
+     */
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * Highest power of two tracked (2^40 microseconds is well over a week).
+     */
+    private static final int MAX_EXPONENT = 40;
+
+    /**
+     * Total number of buckets: one linear range below {@link #SUB_BUCKETS}, then one set per power of two.
+     */
+    private static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records a single latency sample.
+     *
+     * @param nanos the measured duration in nanoseconds.
+     */
+    public void recordNanos(long nanos) {
+        long micros = Math.max(0, nanos / 1_000);
+        buckets.incrementAndGet(indexOf(micros));
+        count.increment();
+        sum.add(micros);
+        if (micros > max.get()) max.accumulateAndGet(micros, Math::max);
+    }
+
+    /**
+     * @return the number of recorded samples.
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * @return the mean of all recorded samples in microseconds, or {@code 0} if nothing was recorded.
+     */
+    public double getMeanMicros() {
+        long samples = count.sum();
+        return samples == 0 ? 0 : (double) sum.sum() / samples;
+    }
+
+    /**
+     * @return the largest recorded sample in microseconds.
+     */
+    public long getMaxMicros() {
+        return max.get();
+    }
+
+    /**
+     * Returns the value at the given percentile.
+     *
+     * @param percentile the percentile to look up, between {@code 0} and {@code 100}.
+     * @return the upper bound (in microseconds) of the bucket containing the requested percentile.
+     */
+    public long getPercentileMicros(double percentile) {
+        long total = 0;
+        long[] counts = new long[buckets.length()];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = buckets.get(i);
+            total += counts[i];
+        }
+        if (total == 0) return 0;
+
+        long target = (long) Math.ceil(total * Math.min(100, Math.max(0, percentile)) / 100.0);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= target && counts[i] > 0) {
+                return Math.min(upperBoundOf(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    /**
+     * Maps a value to its bucket index.
+     */
+    private static int indexOf(long micros) {
+        if (micros < SUB_BUCKETS) return (int) micros;
+
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        if (exponent > MAX_EXPONENT) return BUCKET_COUNT - 1;
+
+        int subBucket = (int) ((micros >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1));
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * Returns the largest value that maps to the given bucket index.
+     */
+    private static long upperBoundOf(int index) {
+        if (index < SUB_BUCKETS) return index;
+
+        int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long subBucket = index % SUB_BUCKETS;
+        long lower = (1L << exponent) + (subBucket << (exponent - SUB_BUCKET_BITS));
+        return lower + (1L << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+}
@@ -0,0 +1,27 @@
+package net.minso.chathead.API.metrics;
+
+/**
+ * A pluggable sink for {@link HeadMetrics}.
+ * <p>
+ * Exporters are registered through {@link HeadMetrics#registerExporter(MetricsExporter)} and receive an
+ * immutable {@link MetricsSnapshot} periodically (see {@code metrics-export-interval-seconds}), always
+ * off the main thread. Implementations can forward the values to Prometheus, StatsD, a log file, etc.
+ * </p>
+ * <p>
+ * Example usage:
+ * <pre>
+ *     ChatHeadAPI.getInstance().getMetrics().registerExporter(snapshot ->
+ *             getLogger().info("Head cache hit ratio: " + snapshot.hitRatio()));
+ * </pre>
+ * </p>
+ */
+@FunctionalInterface
+public interface MetricsExporter {
+
+    /**
+     * Exports a snapshot of the current metrics.
+     *
+     * @param snapshot the snapshot taken right before this call.
+     */
+    void export(MetricsSnapshot snapshot);
+}
@@ -0,0 +1,84 @@
+package net.minso.chathead.API.metrics;
+
+import net.minso.chathead.API.FetchPriority;
+import net.minso.chathead.API.SkinSourceEnum;
+
+import java.util.Map;
+
+/**
+ * An immutable, point-in-time view of {@link HeadMetrics}.
+ *
+ * @param hits        the number of lookups answered with a fresh cached head.
+ * @param staleHits   the number of lookups answered with an expired head while a refresh was scheduled.
+ * @param misses      the number of lookups that found no cached head at all.
+ * @param sharedHits  the number of fetches answered by the shared cache tier instead of a skin source.
+ * @param queueDepth  the number of fetches currently pending.
+ * @param entryCount  the number of heads currently cached.
+ * @param entryBytes  the estimated memory retained by the cached heads, in bytes.
+ * @param sources     per-source fetch statistics.
+ * @param queues      per-priority fetch queue statistics.
+ */
+public record MetricsSnapshot(long hits,
+                              long staleHits,
+                              long misses,
+                              long sharedHits,
+                              long queueDepth,
+                              long entryCount,
+                              long entryBytes,
+                              Map<SkinSourceEnum, SourceSnapshot> sources,
+                              Map<FetchPriority, QueueSnapshot> queues) {
+
+    /**
+     * @return the ratio of fresh and stale hits to all lookups, between {@code 0} and {@code 1}.
+     */
+    public double hitRatio() {
+        long lookups = hits + staleHits + misses;
+        return lookups == 0 ? 0 : (double) (hits + staleHits) / lookups;
+    }
+
+    /**
+     * Fetch statistics of a single {@link SkinSourceEnum}.
+     *
+     * @param fetches  the number of completed fetches, successful or not.
+     * @param failures the number of failed fetches keyed by cause (usually the exception's simple name).
+     * @param p50Micros the median fetch latency in microseconds.
+     * @param p99Micros the 99th percentile fetch latency in microseconds.
+     * @param maxMicros the slowest recorded fetch in microseconds.
+     */
+    public record SourceSnapshot(long fetches,
+                                 Map<String, Long> failures,
+                                 long p50Micros,
+                                 long p99Micros,
+                                 long maxMicros) {
+
+        /**
+         * @return the total number of failed fetches across all causes.
+         */
+        public long failureCount() {
+            return failures.values().stream().mapToLong(Long::longValue).sum();
+        }
+
+        /**
+         * @return the ratio of failed fetches to all fetches, between {@code 0} and {@code 1}.
+         */
+        public double errorRate() {
+            return fetches == 0 ? 0 : (double) failureCount() / fetches;
+        }
+    }
+
+    /**
+     * Fetch queue statistics of a single {@link FetchPriority}.
+     *
+     * @param queued        the number of fetches currently waiting to start.
+     * @param started       the number of fetches that left the queue.
+     * @param p50WaitMicros the median time spent queued in microseconds.
+     * @param p99WaitMicros the 99th percentile time spent queued in microseconds.
+     * @param maxWaitMicros the longest recorded time spent queued in microseconds.
+     */
+    public record QueueSnapshot(long queued,
+                                long started,
+                                long p50WaitMicros,
+                                long p99WaitMicros,
+                                long maxWaitMicros) {
+    }
+}
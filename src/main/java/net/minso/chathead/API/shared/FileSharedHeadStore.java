@@ -0,0 +1,77 @@
+package net.minso.chathead.API.shared;
+
+import net.md_5.bungee.api.chat.BaseComponent;
+import net.md_5.bungee.chat.ComponentSerializer;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * {@link SharedHeadStore} backed by a directory shared by every server running on the same host.
+ * <p>
+ * Each head is stored as its JSON component form in its own file, named after its cache key. Files are written to a
+ * temporary name and atomically moved into place, so readers never observe a partially written head; their
+ * modification time is used as the publication time.
+ * </p>
+ */
+public class FileSharedHeadStore implements SharedHeadStore {
+
+    private final Path directory;
+    private final Logger logger;
+
+    /**
+     * Creates a store in the given directory, creating it if needed.
+     *
+     * @param directory the directory shared by the servers.
+     * @param logger    the logger to report I/O errors to.
+     * @throws IOException if the directory couldn't be created.
+     */
+    public FileSharedHeadStore(Path directory, Logger logger) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.logger = logger;
+    }
+
+    @Override
+    public @Nullable BaseComponent[] load(String key, long maxAgeMillis) {
+        Path file = fileOf(key);
+        try {
+            if (System.currentTimeMillis() - Files.getLastModifiedTime(file).toMillis() > maxAgeMillis) {
+                return null;
+            }
+            return ComponentSerializer.parse(Files.readString(file, StandardCharsets.UTF_8));
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException | RuntimeException e) {
+            logger.log(Level.WARNING, "Could not read shared head " + file, e);
+            return null;
+        }
+    }
+
+    @Override
+    public void store(String key, BaseComponent[] head) {
+        Path file = fileOf(key);
+        try {
+            Path temp = Files.createTempFile(directory, key.replace(':', '-'), ".tmp");
+            Files.writeString(temp, ComponentSerializer.toString(head), StandardCharsets.UTF_8);
+            try {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Could not write shared head " + file, e);
+        }
+    }
+
+    private Path fileOf(String key) {
+        return directory.resolve(key.replace(':', '-') + ".json");
+    }
+}
@@ -0,0 +1,46 @@
+package net.minso.chathead.API.shared;
+
+import net.md_5.bungee.api.chat.BaseComponent;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link SharedHeadStore} keeping heads in memory.
+ * <p>
+ * Sharing a single instance between several {@link net.minso.chathead.API.HeadCache}s stands in for a real shared
+ * tier when testing; it is also what {@link ProxySharedHeadStore} keeps the heads received from other servers in.
+ * </p>
+ */
+public class MemorySharedHeadStore implements SharedHeadStore {
+
+    private final Map<String, Entry> heads = new ConcurrentHashMap<>();
+
+    @Override
+    public @Nullable BaseComponent[] load(String key, long maxAgeMillis) {
+        Entry entry = heads.get(key);
+        if (entry == null) return null;
+
+        if (System.currentTimeMillis() - entry.timestamp() > maxAgeMillis) {
+            heads.remove(key, entry);
+            return null;
+        }
+        return entry.head();
+    }
+
+    @Override
+    public void store(String key, BaseComponent[] head) {
+        heads.put(key, new Entry(head, System.currentTimeMillis()));
+    }
+
+    /**
+     * @return the number of heads currently held.
+     */
+    public int size() {
+        return heads.size();
+    }
+
+    private record Entry(BaseComponent[] head, long timestamp) {
+    }
+}
@@ -0,0 +1,110 @@
+package net.minso.chathead.API.shared;
+
+import net.md_5.bungee.api.chat.BaseComponent;
+import net.minso.chathead.Main;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.messaging.PluginMessageListener;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.logging.Level;
+
+/**
+ * {@link SharedHeadStore} publishing heads to the other backend servers through the proxy's plugin messaging channel.
+ * <p>
+ * Every head fetched upstream is sent with the BungeeCord {@code Forward} sub-channel (also understood by Velocity)
+ * to all other servers, which keep it in a {@link MemorySharedHeadStore}. Lookups are therefore purely local.
+ * Plugin messages travel over a player's connection, so a server only sends and receives heads while it has at
+ * least one player online.
+ * </p>
+ * <p>
+ * The proxy plugin sends the heads it renders on the same sub-channel, so backends using this store skip
+ * fetching heads the proxy already rendered.
+ * </p>
+ */
+public class ProxySharedHeadStore implements SharedHeadStore, PluginMessageListener {
+
+    private static final String CHANNEL = "BungeeCord";
+
+    private final Main plugin;
+    private final MemorySharedHeadStore received = new MemorySharedHeadStore();
+
+    /**
+     * Creates the store and registers the plugin messaging channels.
+     *
+     * @param plugin the plugin owning the channels.
+     */
+    public ProxySharedHeadStore(Main plugin) {
+        this.plugin = plugin;
+        plugin.getServer().getMessenger().registerOutgoingPluginChannel(plugin, CHANNEL);
+        plugin.getServer().getMessenger().registerIncomingPluginChannel(plugin, CHANNEL, this);
+    }
+
+    @Override
+    public @Nullable BaseComponent[] load(String key, long maxAgeMillis) {
+        return received.load(key, maxAgeMillis);
+    }
+
+    @Override
+    public void store(String key, BaseComponent[] head) {
+        Iterator<? extends Player> players = plugin.getServer().getOnlinePlayers().iterator();
+        if (!players.hasNext()) return;
+
+        byte[] message;
+        try {
+            message = encode(new SharedHeadMessage(key, head));
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.WARNING, "Could not encode shared head " + key, e);
+            return;
+        }
+
+        Player carrier = players.next();
+        plugin.getPluginScheduler().runForEntity(carrier, () -> carrier.sendPluginMessage(plugin, CHANNEL, message));
+    }
+
+    @Override
+    public void onPluginMessageReceived(@NotNull String channel, @NotNull Player player, byte[] message) {
+        if (!channel.equals(CHANNEL)) return;
+
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(message))) {
+            if (!in.readUTF().equals(SharedHeadMessage.SUBCHANNEL)) return;
+
+            byte[] payload = new byte[in.readUnsignedShort()];
+            in.readFully(payload);
+
+            SharedHeadMessage head = SharedHeadMessage.decode(payload);
+            received.store(head.key(), head.head());
+        } catch (IOException | RuntimeException e) {
+            plugin.getLogger().log(Level.WARNING, "Received an invalid shared head", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        plugin.getServer().getMessenger().unregisterOutgoingPluginChannel(plugin, CHANNEL);
+        plugin.getServer().getMessenger().unregisterIncomingPluginChannel(plugin, CHANNEL, this);
+    }
+
+    /**
+     * Builds a {@code Forward} message carrying a head to all other servers.
+     */
+    private static byte[] encode(SharedHeadMessage head) throws IOException {
+        byte[] payload = head.encode();
+
+        ByteArrayOutputStream message = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(message)) {
+            out.writeUTF("Forward");
+            out.writeUTF("ALL");
+            out.writeUTF(SharedHeadMessage.SUBCHANNEL);
+            out.writeShort(payload.length);
+            out.write(payload);
+        }
+        return message.toByteArray();
+    }
+}
@@ -0,0 +1,61 @@
+package net.minso.chathead.API.shared;
+
+import net.md_5.bungee.api.chat.BaseComponent;
+import net.md_5.bungee.chat.ComponentSerializer;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A head sent between servers over the {@code ChatHeadFont} plugin messaging sub-channel.
+ * <p>
+ * Written by backends publishing to the {@link ProxySharedHeadStore} and by the proxy plugin rendering heads
+ * for all backends; read by the {@link ProxySharedHeadStore}. The encoding is the cache key as a
+ * modified UTF-8 string, followed by the length-prefixed JSON of the head.
+ * </p>
+ *
+ * @param key  the cache key of the head, as used by the {@link net.minso.chathead.API.HeadCache}.
+ * @param head the head.
+ */
+public record SharedHeadMessage(String key, BaseComponent[] head) {
+
+    /**
+     * The name of the plugin messaging sub-channel heads are sent on.
+     */
+    public static final String SUBCHANNEL = "ChatHeadFont";
+
+    /**
+     * @return the encoded message, without the sub-channel header.
+     * @throws IOException if the message couldn't be encoded.
+     */
+    public byte[] encode() throws IOException {
+        ByteArrayOutputStream payload = new ByteArrayOutputStream();
+        try (DataOutputStream data = new DataOutputStream(payload)) {
+            byte[] json = ComponentSerializer.toString(head).getBytes(StandardCharsets.UTF_8);
+            data.writeUTF(key);
+            data.writeInt(json.length);
+            data.write(json);
+        }
+        return payload.toByteArray();
+    }
+
+    /**
+     * Decodes a message written by {@link #encode()}.
+     *
+     * @param payload the encoded message.
+     * @return the decoded message.
+     * @throws IOException if the payload is truncated.
+     */
+    public static SharedHeadMessage decode(byte[] payload) throws IOException {
+        try (DataInputStream data = new DataInputStream(new ByteArrayInputStream(payload))) {
+            String key = data.readUTF();
+            byte[] json = new byte[data.readInt()];
+            data.readFully(json);
+            return new SharedHeadMessage(key, ComponentSerializer.parse(new String(json, StandardCharsets.UTF_8)));
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package net.minso.chathead.API.shared;
+
+import net.md_5.bungee.api.chat.BaseComponent;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A {@code SharedHeadStore} is a second cache tier shared by several servers, sitting between the
+ * {@link net.minso.chathead.API.HeadCache} and the upstream {@link net.minso.chathead.API.SkinSource}.
+ * <p>
+ * Before going upstream, a fetch looks the head up in the shared store; every head fetched upstream is published to
+ * it. A player hopping between backend servers is then fetched once for the whole network instead of once per server.
+ * </p>
+ * <p>
+ * Implementations are selected with the {@code shared-cache} configuration key, and created by
+ * {@link net.minso.chathead.API.ChatHeadAPI}:
+ * <ul>
+ *     <li>{@code NONE}: no shared tier (the default).</li>
+ *     <li>{@code FILE}: {@link FileSharedHeadStore}, a directory shared by servers running on the same host.</li>
+ *     <li>{@code PROXY}: {@link ProxySharedHeadStore}, heads broadcast to the other backends through the proxy.</li>
+ *     <li>{@code MEMORY}: {@link MemorySharedHeadStore}, a local stand-in useful for testing.</li>
+ * </ul>
+ * Methods are called from fetch threads, never from the main thread, and may block briefly.
+ * </p>
+ */
+public interface SharedHeadStore {
+
+    /**
+     * A store that never holds anything.
+     */
+    SharedHeadStore NONE = new SharedHeadStore() {
+        @Override
+        public @Nullable BaseComponent[] load(String key, long maxAgeMillis) {
+            return null;
+        }
+
+        @Override
+        public void store(String key, BaseComponent[] head) {
+        }
+    };
+
+    /**
+     * Looks up a head published by any server.
+     *
+     * @param key          the cache key of the head, as used by the {@link net.minso.chathead.API.HeadCache}.
+     * @param maxAgeMillis the maximum age of an acceptable entry, in milliseconds.
+     * @return the shared head, or {@code null} if none was published recently enough.
+     */
+    @Nullable
+    BaseComponent[] load(String key, long maxAgeMillis);
+
+    /**
+     * Publishes a freshly fetched head to the other servers.
+     *
+     * @param key  the cache key of the head, as used by the {@link net.minso.chathead.API.HeadCache}.
+     * @param head the head to publish.
+     */
+    void store(String key, BaseComponent[] head);
+
+    /**
+     * Releases the resources held by this store. Called when the plugin is disabled.
+     */
+    default void close() {
+    }
+}
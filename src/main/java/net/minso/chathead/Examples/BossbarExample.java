@@ -24,7 +24,7 @@ public class BossbarExample implements Listener {
         ChatHeadAPI chatHeadAPI = ChatHeadAPI.getInstance();
 
         // Get the BaseComponent array representing the players head with overlay from the specified skin source
-        BaseComponent[] components = chatHeadAPI.getHead(player, true, ChatHeadAPI.defaultSource);
+        BaseComponent[] components = chatHeadAPI.getHead(player, true, ChatHeadAPI.getDefaultSource());
 
         //Convert the BaseComponent array to a legacy format.
         String title = TextComponent.toLegacyText(components);
@@ -0,0 +1,22 @@
+package net.minso.chathead.Hooks;
+
+import org.geysermc.floodgate.api.FloodgateApi;
+
+import java.util.UUID;
+
+/**
+ * Recognizes Bedrock players joining through Geyser and Floodgate. Only loaded when Floodgate is installed.
+ */
+public final class FloodgateHook {
+
+    private FloodgateHook() {
+    }
+
+    /**
+     * @param uuid the UUID of an online player.
+     * @return {@code true} if the player joined from Bedrock Edition.
+     */
+    public static boolean isBedrockPlayer(UUID uuid) {
+        return FloodgateApi.getInstance().isFloodgatePlayer(uuid);
+    }
+}
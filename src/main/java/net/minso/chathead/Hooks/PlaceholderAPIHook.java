@@ -2,21 +2,45 @@ package net.minso.chathead.Hooks;
 
 import me.clip.placeholderapi.expansion.PlaceholderExpansion;
 import net.minso.chathead.API.ChatHeadAPI;
+import net.minso.chathead.API.FetchPriority;
+import net.minso.chathead.API.PlayerNameIndex;
 import net.minso.chathead.API.SkinSource;
+import net.minso.chathead.API.SkinSourceEnum;
 import net.minso.chathead.Main;
 import org.bukkit.Bukkit;
 import org.bukkit.OfflinePlayer;
 import org.bukkit.entity.Player;
-import org.bukkit.plugin.java.JavaPlugin;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
-import java.nio.Buffer;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class PlaceholderAPIHook extends PlaceholderExpansion {
-    private final JavaPlugin plugin;
+    /**
+     * The maximum number of distinct placeholders whose parsed parameters are kept.
+     */
+    private static final int MAX_CACHED_REQUESTS = 4096;
 
-    public PlaceholderAPIHook(JavaPlugin plugin) {
+    private final Main plugin;
+    private final boolean useUUID;
+
+    /**
+     * Parsed placeholder parameters, so resolving a placeholder again doesn't parse it again.
+     */
+    private final Map<String, Request> requests = new ConcurrentHashMap<>();
+
+    /**
+     * The skin sources explicitly requested by placeholders.
+     */
+    private final Map<SkinSourceEnum, SkinSource> skinSources = Collections.synchronizedMap(new EnumMap<>(SkinSourceEnum.class));
+
+    public PlaceholderAPIHook(Main plugin) {
         this.plugin = plugin;
+        this.useUUID = plugin.isOfflineModeEnabled();
     }
 
     @Override
@@ -42,29 +66,122 @@ public class PlaceholderAPIHook extends PlaceholderExpansion {
 
     @Override
     public String onRequest(OfflinePlayer offlinePlayer, @NotNull String params) {
-        ChatHeadAPI api = ChatHeadAPI.getInstance();
+        Request request = requests.get(params);
+        if (request == null) {
+            request = parse(params);
+            // Names of other players may come from user input, so the cache is bounded.
+            if (requests.size() < MAX_CACHED_REQUESTS) requests.put(params, request);
+        }
 
-        // %chathead% or %chathead_self% - Returns the head of the player who requested the placeholder.
-        if (params.isEmpty() || params.equalsIgnoreCase("self")) {
-            if (offlinePlayer == null) return "No player found!";
-            Player player = Bukkit.getPlayer(offlinePlayer.getUniqueId());
-            if (player == null) return "You must be online!";
+        ChatHeadAPI api = ChatHeadAPI.getInstance();
+        SkinSource skinSource = request.skinSource != null ? request.skinSource : ChatHeadAPI.getDefaultSource();
+
+        switch (request.target) {
+            // %chathead% or %chathead_self% - Returns the head of the player who requested the placeholder.
+            case SELF -> {
+                if (offlinePlayer == null) return "No player found!";
+                Player player = Bukkit.getPlayer(offlinePlayer.getUniqueId());
+                if (player == null) return "You must be online!";
+
+                return api.getHeadAsString(player.getUniqueId(), player.getName(), request.overlay, skinSource, FetchPriority.LOW);
+            }
+            // %chathead_other:<player>% - Returns the head of the specified player.
+            // The name is resolved without blocking; until it is, the configured placeholder text is returned.
+            case OTHER -> {
+                PlayerNameIndex nameIndex = api.getNameIndex();
+                UUID targetUUID = nameIndex.resolve(request.argument);
+                if (targetUUID == null) {
+                    return nameIndex.isUnknown(request.argument) ? "Player not found!" : plugin.getPluginConfig().getPlaceholderUnresolvedText();
+                }
+
+                return api.getHeadAsString(targetUUID, request.argument, request.overlay, skinSource, FetchPriority.LOW);
+            }
+            // %chathead_uuid:<uuid>% - Returns the head of the player with the specified UUID.
+            case PLAYER_UUID -> {
+                return api.getHeadAsString(request.uuid, null, request.overlay, skinSource, FetchPriority.LOW);
+            }
+            default -> {
+                return "Invalid placeholder!";
+            }
+        }
+    }
 
-            return api.getHeadAsString(player, true, ChatHeadAPI.defaultSource);
+    /**
+     * Parses the parameters of a placeholder: any number of options ({@code nooverlay}, {@code source:<source>}),
+     * each followed by an underscore, then the target ({@code self}, {@code other:<player>} or {@code uuid:<uuid>}).
+     * Without a target, the head of the player who requested the placeholder is returned.
+     */
+    private Request parse(String params) {
+        boolean overlay = true;
+        SkinSource skinSource = null;
+
+        String rest = params;
+        while (true) {
+            if (rest.regionMatches(true, 0, "nooverlay", 0, 9) && (rest.length() == 9 || rest.charAt(9) == '_')) {
+                overlay = false;
+                rest = rest.length() == 9 ? "" : rest.substring(10);
+            } else if (rest.regionMatches(true, 0, "source:", 0, 7)) {
+                int end = rest.indexOf('_');
+                skinSource = getSkinSource(end < 0 ? rest.substring(7) : rest.substring(7, end));
+                if (skinSource == null) return Request.INVALID;
+                rest = end < 0 ? "" : rest.substring(end + 1);
+            } else {
+                break;
+            }
         }
 
-        // %chathead_other_<player>% - Returns the head of the specified player.
-        if (params.startsWith("other:")) {
-            String targetName = params.substring(6);
-            OfflinePlayer targetPlayer = Bukkit.getOfflinePlayer(targetName);
-            if (targetPlayer == null) return "Player not found!";
+        if (rest.isEmpty() || rest.equalsIgnoreCase("self")) {
+            return new Request(Target.SELF, null, null, overlay, skinSource);
+        }
+        if (rest.regionMatches(true, 0, "other:", 0, 6)) {
+            return new Request(Target.OTHER, rest.substring(6), null, overlay, skinSource);
+        }
+        if (rest.regionMatches(true, 0, "uuid:", 0, 5)) {
+            try {
+                return new Request(Target.PLAYER_UUID, null, UUID.fromString(rest.substring(5)), overlay, skinSource);
+            } catch (IllegalArgumentException e) {
+                return Request.INVALID;
+            }
+        }
+        return Request.INVALID;
+    }
 
-            return api.getHeadAsString(targetPlayer, true, ChatHeadAPI.defaultSource);
+    /**
+     * Retrieves the {@link SkinSource} of the given name, created once and shared by all placeholders.
+     *
+     * @return the skin source, or {@code null} if no source has that name.
+     */
+    private @Nullable SkinSource getSkinSource(String name) {
+        for (SkinSourceEnum source : SkinSourceEnum.values()) {
+            if (source.isPlayerSource() && source.name().equalsIgnoreCase(name)) {
+                return skinSources.computeIfAbsent(source, key -> key.createSource(useUUID));
+            }
         }
+        return null;
+    }
 
-        return "Invalid placeholder!";
+    /**
+     * Who a placeholder shows the head of.
+     */
+    private enum Target {
+        SELF,
+        OTHER,
+        PLAYER_UUID,
+        INVALID
     }
 
+    /**
+     * The parsed parameters of a placeholder.
+     *
+     * @param target     who the placeholder shows the head of.
+     * @param argument   the name of the player for {@link Target#OTHER}.
+     * @param uuid       the UUID of the player for {@link Target#PLAYER_UUID}.
+     * @param overlay    whether the skin overlay is applied.
+     * @param skinSource the source to fetch the head from, {@code null} for the default source.
+     */
+    private record Request(Target target, @Nullable String argument, @Nullable UUID uuid, boolean overlay, @Nullable SkinSource skinSource) {
+        private static final Request INVALID = new Request(Target.INVALID, null, null, true, null);
+    }
 
     public static void registerHook(Main plugin) {
         new PlaceholderAPIHook(plugin).register();
@@ -4,14 +4,23 @@ import net.minso.chathead.API.ChatHeadAPI;
 import net.minso.chathead.Examples.ActionBarExample;
 import net.minso.chathead.Examples.BossbarExample;
 import net.minso.chathead.Examples.JoinLeaveChatExample;
+import net.minso.chathead.Hooks.FloodgateHook;
 import net.minso.chathead.Hooks.PlaceholderAPIHook;
+import net.minso.chathead.Utils.PluginScheduler;
 import net.minso.chathead.Utils.UpdateChecker;
+import net.minso.chathead.command.ChatHeadCommand;
 import net.minso.chathead.config.Config;
 import net.minso.chathead.listener.PlayerListener;
+import net.minso.chathead.pack.ResourcePackManager;
+import net.minso.chathead.API.metrics.MetricsSnapshot;
 import org.bstats.bukkit.Metrics;
+import org.bstats.charts.SimplePie;
+import org.bstats.charts.SingleLineChart;
+import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.jetbrains.annotations.NotNull;
 
+import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.util.Properties;
@@ -19,25 +28,54 @@ import java.util.Properties;
 public final class Main extends JavaPlugin {
     public static final String RESOURCE_PACK = "https://github.com/OGminso/ChatHeadFont/raw/main/pack.zip";
     private Config config;
+    private PluginScheduler scheduler;
+    private ResourcePackManager resourcePackManager;
 
     @Override
     public void onEnable() {
-        ChatHeadAPI.initialize(this);
+        this.scheduler = PluginScheduler.create(this);
         this.config = new Config(this);
         this.config.init();
+        ChatHeadAPI.initialize(this);
+        this.resourcePackManager = new ResourcePackManager(this);
+        this.resourcePackManager.enable();
         this.registerListeners();
+        ChatHeadCommand.register(this);
 
         if (getServer().getPluginManager().getPlugin("PlaceholderAPI") != null){
             PlaceholderAPIHook.registerHook(this);
             getLogger().info("Hooked into PlaceholderAPI!");
         }
 
+        if (getServer().getPluginManager().getPlugin("floodgate") != null) {
+            resourcePackManager.getStatusTracker().setBedrockCheck(FloodgateHook::isBedrockPlayer);
+            getLogger().info("Hooked into Floodgate!");
+        }
+
         //Uncomment this to enable the examples!
         //registerExamples();
 
         new UpdateChecker(this).checkForUpdates();
 
         Metrics metrics = new Metrics(this, 27972);
+        registerCharts(metrics);
+    }
+
+    @Override
+    public void onDisable() {
+        if (resourcePackManager != null) resourcePackManager.disable();
+        ChatHeadAPI.shutdown();
+    }
+
+    private void registerCharts(Metrics metrics) {
+        metrics.addCustomChart(new SimplePie("skin_source", () -> config.getSkinSource().toUpperCase()));
+        metrics.addCustomChart(new SimplePie("fetch_engine", () -> config.getFetchEngine().toUpperCase()));
+        metrics.addCustomChart(new SingleLineChart("cached_heads",
+                () -> (int) ChatHeadAPI.getInstance().getMetrics().snapshot().entryCount()));
+        metrics.addCustomChart(new SimplePie("cache_hit_ratio", () -> {
+            MetricsSnapshot snapshot = ChatHeadAPI.getInstance().getMetrics().snapshot();
+            return (int) (snapshot.hitRatio() * 10) * 10 + "%";
+        }));
     }
 
     private void registerExamples() {
@@ -48,6 +86,7 @@ public final class Main extends JavaPlugin {
 
     private void registerListeners() {
         getServer().getPluginManager().registerEvents(new PlayerListener(this), this);
+        getServer().getPluginManager().registerEvents(ChatHeadAPI.getInstance().getNameIndex(), this);
     }
 
     public boolean isOfflineModeEnabled() {
@@ -61,8 +100,36 @@ public final class Main extends JavaPlugin {
         }
     }
 
+    /**
+     * Checks whether the server runs behind a BungeeCord or Velocity proxy forwarding player UUIDs. Such servers run
+     * with {@code online-mode=false}, yet their players have online UUIDs.
+     *
+     * @return {@code true} if BungeeCord forwarding ({@code spigot.yml}) or Velocity forwarding (Paper) is enabled.
+     */
+    public boolean isBehindProxy() {
+        if (getServer().spigot().getConfig().getBoolean("settings.bungeecord")) return true;
+
+        // Paper 1.19 and newer, then older Paper versions.
+        File paperGlobal = new File("config", "paper-global.yml");
+        if (paperGlobal.isFile() && YamlConfiguration.loadConfiguration(paperGlobal).getBoolean("proxies.velocity.enabled")) {
+            return true;
+        }
+        File paper = new File("paper.yml");
+        return paper.isFile() && YamlConfiguration.loadConfiguration(paper).getBoolean("settings.velocity-support.enabled");
+    }
+
     @NotNull
     public Config getPluginConfig() {
         return config;
     }
+
+    @NotNull
+    public PluginScheduler getPluginScheduler() {
+        return scheduler;
+    }
+
+    @NotNull
+    public ResourcePackManager getResourcePackManager() {
+        return resourcePackManager;
+    }
 }
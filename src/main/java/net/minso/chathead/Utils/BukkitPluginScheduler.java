@@ -0,0 +1,49 @@
+package net.minso.chathead.Utils;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Entity;
+import org.bukkit.plugin.Plugin;
+
+/**
+ * {@link PluginScheduler} backed by the regular {@link org.bukkit.scheduler.BukkitScheduler}.
+ */
+public class BukkitPluginScheduler implements PluginScheduler {
+
+    private final Plugin plugin;
+
+    public BukkitPluginScheduler(Plugin plugin) {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public void runAsync(Runnable task) {
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, task);
+    }
+
+    @Override
+    public Task runAsyncLater(Runnable task, long delayTicks) {
+        return Bukkit.getScheduler().runTaskLaterAsynchronously(plugin, task, delayTicks)::cancel;
+    }
+
+    @Override
+    public Task runAsyncTimer(Runnable task, long delayTicks, long periodTicks) {
+        return Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, task, delayTicks, periodTicks)::cancel;
+    }
+
+    @Override
+    public void runForEntity(Entity entity, Runnable task) {
+        Bukkit.getScheduler().runTask(plugin, () -> {
+            if (entity.isValid()) task.run();
+        });
+    }
+
+    @Override
+    public void cancelAll() {
+        Bukkit.getScheduler().cancelTasks(plugin);
+    }
+
+    @Override
+    public String getName() {
+        return "Bukkit";
+    }
+}
@@ -0,0 +1,144 @@
+package net.minso.chathead.Utils;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Server;
+import org.bukkit.entity.Entity;
+import org.bukkit.plugin.Plugin;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * {@link PluginScheduler} backed by Folia's async, global region and entity schedulers.
+ * <p>
+ * The plugin compiles against the Spigot API, so Folia's scheduler API is accessed reflectively.
+ * All methods are resolved once on construction.
+ * </p>
+ */
+public class FoliaPluginScheduler implements PluginScheduler {
+
+    private static final String SCHEDULER_PACKAGE = "io.papermc.paper.threadedregions.scheduler.";
+
+    private final Plugin plugin;
+
+    private final Object asyncScheduler;
+    private final Method asyncRunNow;
+    private final Method asyncRunDelayed;
+    private final Method asyncRunAtFixedRate;
+    private final Method asyncCancelTasks;
+
+    private final Object globalScheduler;
+    private final Method globalCancelTasks;
+
+    private final Method entityGetScheduler;
+    private final Method entityRun;
+
+    private final Method taskCancel;
+
+    /**
+     * Resolves Folia's schedulers.
+     *
+     * @param plugin the plugin owning the scheduled tasks.
+     * @throws ReflectiveOperationException if the running server doesn't provide Folia's scheduler API.
+     */
+    public FoliaPluginScheduler(Plugin plugin) throws ReflectiveOperationException {
+        this.plugin = plugin;
+
+        Class<?> asyncClass = Class.forName(SCHEDULER_PACKAGE + "AsyncScheduler");
+        this.asyncScheduler = Server.class.getMethod("getAsyncScheduler").invoke(Bukkit.getServer());
+        this.asyncRunNow = asyncClass.getMethod("runNow", Plugin.class, Consumer.class);
+        this.asyncRunDelayed = asyncClass.getMethod("runDelayed", Plugin.class, Consumer.class, long.class, TimeUnit.class);
+        this.asyncRunAtFixedRate = asyncClass.getMethod("runAtFixedRate", Plugin.class, Consumer.class, long.class, long.class, TimeUnit.class);
+        this.asyncCancelTasks = asyncClass.getMethod("cancelTasks", Plugin.class);
+
+        Class<?> globalClass = Class.forName(SCHEDULER_PACKAGE + "GlobalRegionScheduler");
+        this.globalScheduler = Server.class.getMethod("getGlobalRegionScheduler").invoke(Bukkit.getServer());
+        this.globalCancelTasks = globalClass.getMethod("cancelTasks", Plugin.class);
+
+        Class<?> entityClass = Class.forName(SCHEDULER_PACKAGE + "EntityScheduler");
+        this.entityGetScheduler = Entity.class.getMethod("getScheduler");
+        this.entityRun = entityClass.getMethod("run", Plugin.class, Consumer.class, Runnable.class);
+
+        this.taskCancel = Class.forName(SCHEDULER_PACKAGE + "ScheduledTask").getMethod("cancel");
+    }
+
+    /**
+     * @return {@code true} if the running server is Folia (or a fork of it).
+     */
+    public static boolean isFolia() {
+        try {
+            Class.forName("io.papermc.paper.threadedregions.RegionizedServer");
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public void runAsync(Runnable task) {
+        invoke(asyncRunNow, asyncScheduler, plugin, consumer(task));
+    }
+
+    @Override
+    public Task runAsyncLater(Runnable task, long delayTicks) {
+        if (delayTicks <= 0) {
+            return handle(invoke(asyncRunNow, asyncScheduler, plugin, consumer(task)));
+        }
+        return handle(invoke(asyncRunDelayed, asyncScheduler, plugin, consumer(task), delayTicks * 50, TimeUnit.MILLISECONDS));
+    }
+
+    @Override
+    public Task runAsyncTimer(Runnable task, long delayTicks, long periodTicks) {
+        return handle(invoke(asyncRunAtFixedRate, asyncScheduler, plugin, consumer(task),
+                Math.max(1, delayTicks) * 50, Math.max(1, periodTicks) * 50, TimeUnit.MILLISECONDS));
+    }
+
+    @Override
+    public void runForEntity(Entity entity, Runnable task) {
+        Object entityScheduler = invoke(entityGetScheduler, entity);
+        // A null retired callback drops the task if the entity is removed first.
+        invoke(entityRun, entityScheduler, plugin, consumer(task), null);
+    }
+
+    @Override
+    public void cancelAll() {
+        invoke(asyncCancelTasks, asyncScheduler, plugin);
+        invoke(globalCancelTasks, globalScheduler, plugin);
+    }
+
+    @Override
+    public String getName() {
+        return "Folia";
+    }
+
+    /**
+     * Wraps a task into the {@code Consumer<ScheduledTask>} expected by Folia's schedulers.
+     */
+    private static Consumer<Object> consumer(Runnable task) {
+        return scheduledTask -> task.run();
+    }
+
+    /**
+     * Wraps one of Folia's {@code ScheduledTask}s into a {@link Task}.
+     */
+    private Task handle(Object scheduledTask) {
+        return () -> {
+            if (scheduledTask != null) invoke(taskCancel, scheduledTask);
+        };
+    }
+
+    private static Object invoke(Method method, Object target, Object... args) {
+        try {
+            return method.invoke(target, args);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        } catch (InvocationTargetException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) throw runtimeException;
+            if (cause instanceof Error error) throw error;
+            throw new IllegalStateException(cause);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package net.minso.chathead.Utils;
+
+import org.bukkit.entity.Entity;
+import org.bukkit.plugin.Plugin;
+
+/**
+ * Scheduler abstraction hiding the differences between the Bukkit scheduler and Folia's regionized schedulers.
+ * <p>
+ * Folia throws on every {@link org.bukkit.scheduler.BukkitScheduler} call, so all of the plugin's tasks are scheduled
+ * through this interface. Use {@link #create(Plugin)} to get the implementation matching the running server.
+ * </p>
+ */
+public interface PluginScheduler {
+
+    /**
+     * Runs a task off the main/region threads as soon as possible.
+     *
+     * @param task the task to run.
+     */
+    void runAsync(Runnable task);
+
+    /**
+     * Runs a task off the main/region threads after a delay.
+     *
+     * @param task       the task to run.
+     * @param delayTicks the delay in server ticks (1 tick = 50 ms).
+     * @return a handle to cancel the task.
+     */
+    Task runAsyncLater(Runnable task, long delayTicks);
+
+    /**
+     * Repeatedly runs a task off the main/region threads.
+     *
+     * @param task        the task to run.
+     * @param delayTicks  the delay before the first run, in server ticks.
+     * @param periodTicks the period between two runs, in server ticks.
+     * @return a handle to cancel the task.
+     */
+    Task runAsyncTimer(Runnable task, long delayTicks, long periodTicks);
+
+    /**
+     * Runs a task on the thread owning the given entity: the main thread, or the entity's region thread on Folia.
+     * The task is silently dropped if the entity is removed before it runs.
+     *
+     * @param entity the entity the task operates on.
+     * @param task   the task to run.
+     */
+    void runForEntity(Entity entity, Runnable task);
+
+    /**
+     * Cancels every task scheduled by the plugin.
+     */
+    void cancelAll();
+
+    /**
+     * @return a short, human-readable name of this scheduler.
+     */
+    String getName();
+
+    /**
+     * Creates the scheduler matching the running server.
+     *
+     * @param plugin the plugin owning the scheduled tasks.
+     * @return a {@link FoliaPluginScheduler} on Folia, a {@link BukkitPluginScheduler} otherwise.
+     */
+    static PluginScheduler create(Plugin plugin) {
+        if (FoliaPluginScheduler.isFolia()) {
+            try {
+                return new FoliaPluginScheduler(plugin);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Folia detected but its schedulers could not be accessed", e);
+            }
+        }
+        return new BukkitPluginScheduler(plugin);
+    }
+
+    /**
+     * A handle to a scheduled task.
+     */
+    interface Task {
+
+        /**
+         * Cancels the task. Has no effect if it already ran or was already cancelled.
+         */
+        void cancel();
+    }
+}
@@ -1,7 +1,6 @@
 package net.minso.chathead.Utils;
 
 import net.minso.chathead.Main;
-import org.bukkit.Bukkit;
 import org.json.JSONObject;
 
 import java.io.BufferedReader;
@@ -21,7 +20,7 @@ public class UpdateChecker {
     public void checkForUpdates() {
         if (!plugin.getPluginConfig().getCheckForUpdates()) return;
 
-        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+        plugin.getPluginScheduler().runAsync(() -> {
 
             try {
                 HttpURLConnection connection = (HttpURLConnection) new URL(API_URL).openConnection();
@@ -0,0 +1,109 @@
+package net.minso.chathead.command;
+
+import net.minso.chathead.API.ChatHeadAPI;
+import net.minso.chathead.API.FetchPriority;
+import net.minso.chathead.API.SkinSourceEnum;
+import net.minso.chathead.API.metrics.MetricsSnapshot;
+import net.minso.chathead.Main;
+import org.bukkit.ChatColor;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandSender;
+import org.bukkit.command.PluginCommand;
+import org.bukkit.command.TabExecutor;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+public class ChatHeadCommand implements TabExecutor {
+    private static final List<String> SUBCOMMANDS = List.of("stats");
+
+    private final Main plugin;
+
+    public ChatHeadCommand(Main plugin) {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public boolean onCommand(@NotNull CommandSender sender, @NotNull Command command, @NotNull String label, @NotNull String[] args) {
+        if (args.length == 0) {
+            sender.sendMessage(ChatColor.YELLOW + "Usage: /" + label + " <" + String.join("|", SUBCOMMANDS) + ">");
+            return true;
+        }
+
+        switch (args[0].toLowerCase()) {
+            case "stats" -> sendStats(sender);
+            default -> sender.sendMessage(ChatColor.RED + "Unknown subcommand: " + args[0]);
+        }
+        return true;
+    }
+
+    @Override
+    public List<String> onTabComplete(@NotNull CommandSender sender, @NotNull Command command, @NotNull String alias, @NotNull String[] args) {
+        if (args.length != 1) return Collections.emptyList();
+
+        List<String> completions = new ArrayList<>();
+        for (String subcommand : SUBCOMMANDS) {
+            if (subcommand.startsWith(args[0].toLowerCase())) completions.add(subcommand);
+        }
+        return completions;
+    }
+
+    private void sendStats(CommandSender sender) {
+        if (!sender.hasPermission("chathead.stats")) {
+            sender.sendMessage(ChatColor.RED + "You don't have permission to do that.");
+            return;
+        }
+
+        MetricsSnapshot snapshot = ChatHeadAPI.getInstance().getMetrics().snapshot();
+
+        sender.sendMessage(ChatColor.GOLD + "ChatHeadFont " + plugin.getDescription().getVersion() + " statistics");
+        sender.sendMessage(ChatColor.GRAY + "Cache: " + ChatColor.WHITE + snapshot.entryCount() + " heads, ~"
+                + formatBytes(snapshot.entryBytes()) + ", " + snapshot.queueDepth() + " pending");
+        sender.sendMessage(ChatColor.GRAY + "Lookups: " + ChatColor.WHITE + snapshot.hits() + " hits, "
+                + snapshot.staleHits() + " stale, " + snapshot.misses() + " misses ("
+                + String.format("%.1f%%", snapshot.hitRatio() * 100) + " hit ratio)");
+        sender.sendMessage(ChatColor.GRAY + "Shared cache: " + ChatColor.WHITE + snapshot.sharedHits() + " hits");
+
+        for (Map.Entry<FetchPriority, MetricsSnapshot.QueueSnapshot> entry : snapshot.queues().entrySet()) {
+            MetricsSnapshot.QueueSnapshot queue = entry.getValue();
+            sender.sendMessage(ChatColor.GRAY + "Queue " + entry.getKey().name() + ": " + ChatColor.WHITE + queue.queued() + " waiting, "
+                    + queue.started() + " started, wait p50 " + formatMicros(queue.p50WaitMicros())
+                    + ", p99 " + formatMicros(queue.p99WaitMicros()) + ", max " + formatMicros(queue.maxWaitMicros()));
+        }
+
+        for (Map.Entry<SkinSourceEnum, MetricsSnapshot.SourceSnapshot> entry : snapshot.sources().entrySet()) {
+            MetricsSnapshot.SourceSnapshot source = entry.getValue();
+            if (source.fetches() == 0) continue;
+
+            sender.sendMessage(ChatColor.GRAY + entry.getKey().name() + ": " + ChatColor.WHITE + source.fetches() + " fetches, "
+                    + String.format("%.1f%%", source.errorRate() * 100) + " errors, p50 " + formatMicros(source.p50Micros())
+                    + ", p99 " + formatMicros(source.p99Micros()) + ", max " + formatMicros(source.maxMicros()));
+            source.failures().forEach((cause, count) ->
+                    sender.sendMessage(ChatColor.DARK_GRAY + "  " + cause + ": " + count));
+        }
+    }
+
+    private String formatMicros(long micros) {
+        if (micros < 1_000) return micros + "µs";
+        if (micros < 1_000_000) return String.format("%.1fms", micros / 1_000.0);
+        return String.format("%.2fs", micros / 1_000_000.0);
+    }
+
+    private String formatBytes(long bytes) {
+        if (bytes < 1024) return bytes + "B";
+        if (bytes < 1024 * 1024) return String.format("%.1fKiB", bytes / 1024.0);
+        return String.format("%.1fMiB", bytes / (1024.0 * 1024.0));
+    }
+
+    public static void register(Main plugin) {
+        PluginCommand command = plugin.getCommand("chathead");
+        if (command == null) return;
+
+        ChatHeadCommand executor = new ChatHeadCommand(plugin);
+        command.setExecutor(executor);
+        command.setTabCompleter(executor);
+    }
+}
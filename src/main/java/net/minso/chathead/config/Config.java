@@ -1,5 +1,6 @@
 package net.minso.chathead.config;
 
+import net.minso.chathead.Main;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.plugin.java.JavaPlugin;
 
@@ -46,10 +47,98 @@ public class Config {
         return plugin.getConfig().getInt("join-messages-delay-seconds", 3);
     }
 
+    public String getJoinMessagesMode() {
+        return plugin.getConfig().getString("join-messages-mode", "DELAY");
+    }
+
+    public String getNoPackHeadText() {
+        return plugin.getConfig().getString("no-pack-head-text", "");
+    }
+
+    public String getHeadRenderMode() {
+        return plugin.getConfig().getString("head-render-mode", "FULL");
+    }
+
+    public int getHeadPaletteMergeThreshold() {
+        return plugin.getConfig().getInt("head-palette-merge-threshold", 0);
+    }
+
+    public boolean getFallbackHeadEnabled() {
+        return plugin.getConfig().getBoolean("fallback-head", true);
+    }
+
     public int getHeadCacheEntryLifetimeSeconds() {
         return plugin.getConfig().getInt("head-cache-entry-lifetime-seconds", 300);
     }
 
+    public int getSkinChangeCheckIntervalSeconds() {
+        return plugin.getConfig().getInt("skin-change-check-interval-seconds", 30);
+    }
+
+    public int getPrefetchMaxConcurrency() {
+        return plugin.getConfig().getInt("prefetch-max-concurrency", 8);
+    }
+
+    public int getNameCacheTtlSeconds() {
+        return plugin.getConfig().getInt("name-cache-ttl-seconds", 3600);
+    }
+
+    public String getPlaceholderUnresolvedText() {
+        return plugin.getConfig().getString("placeholder-unresolved-text", "");
+    }
+
+    public int getMetricsExportIntervalSeconds() {
+        return plugin.getConfig().getInt("metrics-export-interval-seconds", 60);
+    }
+
+    public String getFetchEngine() {
+        return plugin.getConfig().getString("fetch-engine", "AUTO");
+    }
+
+    public int getFetchMaxConcurrency() {
+        return plugin.getConfig().getInt("fetch-max-concurrency", 0);
+    }
+
+    public String getSharedCache() {
+        return plugin.getConfig().getString("shared-cache", "NONE");
+    }
+
+    public String getSharedCacheDirectory() {
+        return plugin.getConfig().getString("shared-cache-directory", "shared-heads");
+    }
+
+    public String getResourcePackHosting() {
+        return plugin.getConfig().getString("resource-pack-hosting", "REMOTE");
+    }
+
+    public String getResourcePackUrl() {
+        return plugin.getConfig().getString("resource-pack-url", Main.RESOURCE_PACK);
+    }
+
+    public int getResourcePackPort() {
+        return plugin.getConfig().getInt("resource-pack-port", 8163);
+    }
+
+    public boolean getHeadGlyphPackEnabled() {
+        return plugin.getConfig().getBoolean("head-glyph-pack", false);
+    }
+
+    public int getHeadGlyphPackMaxPlayers() {
+        return plugin.getConfig().getInt("head-glyph-pack-max-players", 512);
+    }
+
+    public int getHeadGlyphPackMinSightings() {
+        return plugin.getConfig().getInt("head-glyph-pack-min-sightings", 5);
+    }
+
+    public int getHeadGlyphPackRebuildSeconds() {
+        return plugin.getConfig().getInt("head-glyph-pack-rebuild-seconds", 300);
+    }
+
+    public String getResourcePackPublicAddress() {
+        return plugin.getConfig().getString("resource-pack-public-address", "");
+    }
+
     public void init() {
         FileConfiguration config = plugin.getConfig();
         //default configuration:
@@ -62,7 +151,29 @@ public class Config {
         config.addDefault("enable-chat-messages", true);
         config.addDefault("enable-death-messages", true);
         config.addDefault("join-messages-delay-seconds", 3);
+        config.addDefault("join-messages-mode", "DELAY");
         config.addDefault("head-cache-entry-lifetime-seconds", 300);
+        config.addDefault("fallback-head", true);
+        config.addDefault("no-pack-head-text", "");
+        config.addDefault("head-render-mode", "FULL");
+        config.addDefault("head-palette-merge-threshold", 0);
+        config.addDefault("skin-change-check-interval-seconds", 30);
+        config.addDefault("prefetch-max-concurrency", 8);
+        config.addDefault("name-cache-ttl-seconds", 3600);
+        config.addDefault("placeholder-unresolved-text", "");
+        config.addDefault("metrics-export-interval-seconds", 60);
+        config.addDefault("fetch-engine", "AUTO");
+        config.addDefault("fetch-max-concurrency", 0);
+        config.addDefault("shared-cache", "NONE");
+        config.addDefault("shared-cache-directory", "shared-heads");
+        config.addDefault("resource-pack-hosting", "REMOTE");
+        config.addDefault("resource-pack-url", Main.RESOURCE_PACK);
+        config.addDefault("resource-pack-port", 8163);
+        config.addDefault("resource-pack-public-address", "");
+        config.addDefault("head-glyph-pack", false);
+        config.addDefault("head-glyph-pack-max-players", 512);
+        config.addDefault("head-glyph-pack-min-sightings", 5);
+        config.addDefault("head-glyph-pack-rebuild-seconds", 300);
 
         config.options().copyDefaults(true);
         plugin.saveConfig();
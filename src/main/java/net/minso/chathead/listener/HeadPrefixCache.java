@@ -0,0 +1,87 @@
+package net.minso.chathead.listener;
+
+import net.md_5.bungee.api.chat.BaseComponent;
+import net.md_5.bungee.api.chat.ComponentBuilder;
+import net.md_5.bungee.api.chat.TextComponent;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Prepends player heads to legacy messages, serializing each head once as a message prefix.
+ * <p>
+ * The prefix of a player is kept until their head is replaced, so sending a message with a cached head only
+ * concatenates the prefix and the message. Independent of the server, so its cost can be measured on its own.
+ * </p>
+ */
+public final class HeadPrefixCache {
+
+    private final Map<UUID, HeadPrefix> prefixes = new ConcurrentHashMap<>();
+
+    /**
+     * Prepends a player's head, followed by a space, to a legacy message.
+     *
+     * @param uuid    the UUID of the player.
+     * @param head    the head of the player, compared by identity with the head the cached prefix was built from.
+     * @param message the message, in legacy text format.
+     * @param store   whether a rebuilt prefix is kept for later messages; {@code false} for players who already left.
+     * @return the head and the message in legacy text format.
+     */
+    public String prepend(UUID uuid, BaseComponent[] head, String message, boolean store) {
+        return getPrefix(uuid, head, store) + message;
+    }
+
+    /**
+     * Retrieves the prefix of a player's head, building it only if the head was replaced since the prefix was built.
+     *
+     * @param uuid  the UUID of the player.
+     * @param head  the head of the player.
+     * @param store whether a rebuilt prefix is kept for later messages.
+     * @return the head, a space and the formatting reset of the message that follows it, in legacy text format.
+     */
+    public String getPrefix(UUID uuid, BaseComponent[] head, boolean store) {
+        HeadPrefix prefix = prefixes.get(uuid);
+        if (prefix != null && prefix.head() == head) return prefix.legacyText();
+
+        prefix = new HeadPrefix(head, buildPrefix(head));
+        if (store) prefixes.put(uuid, prefix);
+        return prefix.legacyText();
+    }
+
+    /**
+     * Forgets the prefix of a player, once they left or their head changed.
+     *
+     * @param uuid the UUID of the player.
+     */
+    public void remove(UUID uuid) {
+        prefixes.remove(uuid);
+    }
+
+    /**
+     * Serializes a head followed by a space, ending with the formatting of the message that follows it, so
+     * appending the legacy message yields the same text as serializing the head and the message together.
+     */
+    static String buildPrefix(BaseComponent[] head) {
+        ComponentBuilder builder = new ComponentBuilder();
+
+        if (head != null && head.length > 0) {
+            builder.append(head);
+            builder.append(" ");
+        }
+
+        builder.append("", ComponentBuilder.FormatRetention.NONE);
+        BaseComponent[] msg = builder.create();
+
+        return TextComponent.toLegacyText(msg);
+    }
+
+    /**
+     * A head serialized once as a message prefix.
+     *
+     * @param head       the head the prefix was built from, compared by identity as cached heads are never modified.
+     * @param legacyText the head, a space and the formatting reset of the message, in legacy text format.
+     */
+    private record HeadPrefix(BaseComponent[] head, String legacyText) {
+    }
+}
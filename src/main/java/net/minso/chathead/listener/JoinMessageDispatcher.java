@@ -0,0 +1,99 @@
+package net.minso.chathead.listener;
+
+import net.minso.chathead.Main;
+import net.minso.chathead.pack.ResourcePackStatusTracker;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerResourcePackStatusEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sends headed join messages to each recipient as soon as its client has loaded the resource pack.
+ * <p>
+ * Recipients that already loaded the pack get the message right away. Messages for recipients still loading it are
+ * held back and sent in one batch when their client reports the pack as loaded, or with the plain message if it
+ * declined or failed to download it. Bedrock players always get the plain message. {@code join-messages-delay-seconds} is only a ceiling: whatever is still held
+ * back by then is sent anyway.
+ * </p>
+ */
+public class JoinMessageDispatcher implements Listener {
+    private final Main plugin;
+    private final Map<UUID, List<PendingMessage>> pending = new ConcurrentHashMap<>();
+
+    public JoinMessageDispatcher(Main plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Sends a join message to every online player.
+     *
+     * @param headed the message including the head of the player who joined.
+     * @param plain  the message without the head, for clients without the resource pack.
+     */
+    public void dispatch(String headed, String plain) {
+        PendingMessage message = new PendingMessage(headed, plain);
+        List<UUID> held = new ArrayList<>();
+        ResourcePackStatusTracker tracker = plugin.getResourcePackManager().getStatusTracker();
+
+        for (Player recipient : plugin.getServer().getOnlinePlayers()) {
+            if (tracker.isWithoutPack(recipient)) {
+                recipient.sendMessage(plain);
+            } else if (tracker.isLoaded(recipient)) {
+                recipient.sendMessage(headed);
+            } else {
+                pending.compute(recipient.getUniqueId(), (uuid, messages) -> {
+                    if (messages == null) messages = new ArrayList<>();
+                    messages.add(message);
+                    return messages;
+                });
+                held.add(recipient.getUniqueId());
+            }
+        }
+
+        if (held.isEmpty()) return;
+        plugin.getPluginScheduler().runAsyncLater(() -> {
+            for (UUID uuid : held) {
+                Player recipient = plugin.getServer().getPlayer(uuid);
+                if (recipient != null) flush(recipient, !tracker.isWithoutPack(recipient));
+            }
+        }, 20L * plugin.getPluginConfig().getJoinMessagesDelaySeconds());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onResourcePackStatus(PlayerResourcePackStatusEvent event) {
+        switch (event.getStatus()) {
+            case SUCCESSFULLY_LOADED -> flush(event.getPlayer(),
+                    !plugin.getResourcePackManager().getStatusTracker().isWithoutPack(event.getPlayer()));
+            case DECLINED, FAILED_DOWNLOAD -> flush(event.getPlayer(), false);
+            default -> {
+            }
+        }
+    }
+
+    @EventHandler
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        pending.remove(event.getPlayer().getUniqueId());
+    }
+
+    private void flush(Player recipient, boolean headed) {
+        List<PendingMessage> messages = pending.remove(recipient.getUniqueId());
+        if (messages == null) return;
+
+        // Lists are only modified inside compute(), so a removed list is never modified again.
+        String[] batch = messages.stream()
+                .map(message -> headed ? message.headed() : message.plain())
+                .toArray(String[]::new);
+        recipient.sendMessage(batch);
+    }
+
+    private record PendingMessage(String headed, String plain) {
+    }
+}
@@ -1,15 +1,19 @@
 package net.minso.chathead.listener;
 
 import net.md_5.bungee.api.chat.BaseComponent;
-import net.md_5.bungee.api.chat.ComponentBuilder;
-import net.md_5.bungee.api.chat.TextComponent;
 import net.minso.chathead.API.ChatHeadAPI;
+import net.minso.chathead.API.FetchPriority;
 import net.minso.chathead.API.SkinSource;
+import net.minso.chathead.API.event.HeadChangeEvent;
 import net.minso.chathead.API.impl.MojangSource;
 import net.minso.chathead.Main;
+import net.minso.chathead.pack.HeadGlyphPack;
+import net.minso.chathead.pack.ResourcePackStatusTracker;
 import org.bukkit.Bukkit;
+import org.bukkit.ChatColor;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.entity.PlayerDeathEvent;
 import org.bukkit.event.player.AsyncPlayerChatEvent;
@@ -19,14 +23,32 @@ import org.bukkit.event.player.PlayerQuitEvent;
 
 public class PlayerListener implements Listener {
     private final Main plugin;
+    private final JoinMessageDispatcher joinMessageDispatcher;
+
+    /**
+     * The skin source of player heads. Offline-mode servers fetch skins by name, as their UUIDs are unknown to Mojang.
+     */
+    private final SkinSource skinSource;
+
+    /**
+     * The head prefix of every online player, then of the glyph of their head, rebuilt whenever their head changes.
+     */
+    private final HeadPrefixCache prefixes = new HeadPrefixCache();
+    private final HeadPrefixCache glyphPrefixes = new HeadPrefixCache();
 
     public PlayerListener(Main plugin) {
         this.plugin = plugin;
+        this.skinSource = Bukkit.getServer().getOnlineMode()
+                ? ChatHeadAPI.getDefaultSource()
+                : new MojangSource(false);
+        this.joinMessageDispatcher = new JoinMessageDispatcher(plugin);
+        plugin.getServer().getPluginManager().registerEvents(joinMessageDispatcher, plugin);
     }
 
     @EventHandler
     public void onPlayerLogin(PlayerLoginEvent event) {
-        ChatHeadAPI.getInstance().getHead(event.getPlayer());
+        ChatHeadAPI api = ChatHeadAPI.getInstance();
+        api.getHead(event.getPlayer(), true, ChatHeadAPI.getDefaultSource(), FetchPriority.HIGH);
     }
 
     @EventHandler
@@ -34,15 +56,22 @@ public class PlayerListener implements Listener {
 
         if (plugin.getPluginConfig().getAutoDownloadPackEnabled()
                 && plugin.getServer().getResourcePack().isEmpty())
-            event.getPlayer().setResourcePack(Main.RESOURCE_PACK);
+            plugin.getResourcePackManager().sendPack(event.getPlayer());
 
         if (plugin.getPluginConfig().getJoinMessagesEnabled()) {
             String joinMessage = event.getJoinMessage();
             event.setJoinMessage(null);
 
-            Bukkit.getScheduler().runTaskLaterAsynchronously(plugin, () -> {
-                broadcast(joinMessage, event.getPlayer());
-            }, 20 * plugin.getPluginConfig().getJoinMessagesDelaySeconds()); //Send message 3seconds later to fix issue with texture messing up while loading the texture pack.
+            if (plugin.getPluginConfig().getJoinMessagesMode().equalsIgnoreCase("PACK_STATUS")) {
+                joinMessageDispatcher.dispatch(insertPlayerHead(joinMessage, event.getPlayer(), FetchPriority.NORMAL),
+                        insertPlainHead(joinMessage, event.getPlayer()));
+                plugin.getServer().getConsoleSender().sendMessage(joinMessage);
+                return;
+            }
+
+            plugin.getPluginScheduler().runAsyncLater(() -> {
+                broadcast(joinMessage, event.getPlayer(), FetchPriority.NORMAL);
+            }, 20L * plugin.getPluginConfig().getJoinMessagesDelaySeconds()); //Send message 3seconds later to fix issue with texture messing up while loading the texture pack.
         }
     }
 
@@ -51,51 +80,85 @@ public class PlayerListener implements Listener {
     public void onPlayerQuit(PlayerQuitEvent event) {
         if (!plugin.getPluginConfig().getLeaveMessagesEnabled()) return;
 
-        broadcast(event.getQuitMessage(), event.getPlayer());
+        broadcast(event.getQuitMessage(), event.getPlayer(), FetchPriority.NORMAL);
         event.setQuitMessage(null);
     }
 
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuitCleanup(PlayerQuitEvent event) {
+        prefixes.remove(event.getPlayer().getUniqueId());
+        glyphPrefixes.remove(event.getPlayer().getUniqueId());
+    }
+
+    @EventHandler
+    public void onHeadChange(HeadChangeEvent event) {
+        prefixes.remove(event.getUuid());
+    }
+
     @EventHandler
     public void onPlayerChat(AsyncPlayerChatEvent event) {
         if (!plugin.getPluginConfig().getChatMessagesEnabled()) return;
 
         String msg = String.format(event.getFormat(), event.getPlayer().getName(), event.getMessage());
         event.setCancelled(true);
-        broadcast(msg, event.getPlayer());
+        broadcast(msg, event.getPlayer(), FetchPriority.HIGH);
     }
 
     @EventHandler
     public void onPlayerDeath(PlayerDeathEvent event) {
         if (!plugin.getPluginConfig().getDeathMessagesEnabled()) return;
 
-        event.setDeathMessage(insertPlayerHead(event.getDeathMessage(), event.getEntity()));
+        event.setDeathMessage(insertPlayerHead(event.getDeathMessage(), event.getEntity(), FetchPriority.HIGH));
     }
 
-    private String insertPlayerHead(String message, Player player) {
-        SkinSource skinSource = Bukkit.getServer().getOnlineMode()
-                ? ChatHeadAPI.defaultSource
-                : new MojangSource(false);
-
+    private BaseComponent[] getPlayerHead(Player player, FetchPriority priority) {
         ChatHeadAPI api = ChatHeadAPI.getInstance();
-        BaseComponent[] head = api.getHead(player, plugin.getPluginConfig().getSkinOverlayEnabled(), skinSource);
-
-        ComponentBuilder builder = new ComponentBuilder();
+        return api.getHead(player, plugin.getPluginConfig().getSkinOverlayEnabled(), skinSource, priority);
+    }
 
-        if (head != null && head.length > 0) {
-            builder.append(head);
-            builder.append(" ");
-        }
+    private String insertPlayerHead(String message, Player player, FetchPriority priority) {
+        // Delayed join messages may be sent after the player left, their prefix must not be kept.
+        return prefixes.prepend(player.getUniqueId(), getPlayerHead(player, priority), message, player.isOnline());
+    }
 
-        builder.append(message, ComponentBuilder.FormatRetention.NONE);
-        BaseComponent[] msg = builder.create();
+    /**
+     * Prepends the {@code no-pack-head-text} of a player to a message, for recipients who can't display heads.
+     */
+    private String insertPlainHead(String message, Player player) {
+        String text = plugin.getPluginConfig().getNoPackHeadText();
+        if (text.isEmpty()) return message;
 
-        return TextComponent.toLegacyText(msg);
+        text = text.replace("{initial}", player.getName().substring(0, 1));
+        return ChatColor.translateAlternateColorCodes('&', text) + ChatColor.RESET + " " + message;
     }
 
-    private void broadcast(String msg, Player player) {
-        String message = insertPlayerHead(msg, player);
-        for (Player p : plugin.getServer().getOnlinePlayers())
-            p.sendMessage(message);
+    private void broadcast(String msg, Player player, FetchPriority priority) {
+        BaseComponent[] head = getPlayerHead(player, priority);
+        String message = prefixes.prepend(player.getUniqueId(), head, msg, player.isOnline());
+
+        // Recipients whose pack has a glyph of the player's head get it as a single character.
+        HeadGlyphPack glyphPack = plugin.getResourcePackManager().getGlyphPack();
+        if (glyphPack != null) glyphPack.recordSighting(player.getUniqueId(), head);
+        String glyphMessage = null;
+
+        // Recipients who can't display heads get the plain variant instead of unknown characters.
+        ResourcePackStatusTracker tracker = plugin.getResourcePackManager().getStatusTracker();
+        String plainMessage = null;
+
+        for (Player p : plugin.getServer().getOnlinePlayers()) {
+            if (tracker.isWithoutPack(p)) {
+                if (plainMessage == null) plainMessage = insertPlainHead(msg, player);
+                p.sendMessage(plainMessage);
+                continue;
+            }
+            BaseComponent[] glyphHead = glyphPack != null ? glyphPack.getGlyphHead(player.getUniqueId(), p) : null;
+            if (glyphHead == null) {
+                p.sendMessage(message);
+                continue;
+            }
+            if (glyphMessage == null) glyphMessage = glyphPrefixes.prepend(player.getUniqueId(), glyphHead, msg, player.isOnline());
+            p.sendMessage(glyphMessage);
+        }
 
         plugin.getServer().getConsoleSender().sendMessage(msg);
     }
@@ -0,0 +1,285 @@
+package net.minso.chathead.pack;
+
+import net.md_5.bungee.api.ChatColor;
+import net.md_5.bungee.api.chat.BaseComponent;
+import net.md_5.bungee.api.chat.TextComponent;
+import net.minso.chathead.API.FallbackHead;
+import net.minso.chathead.API.HeadRenderMode;
+import net.minso.chathead.API.event.HeadChangeEvent;
+import net.minso.chathead.Main;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerResourcePackStatusEvent;
+import org.jetbrains.annotations.Nullable;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+
+/**
+ * Extends the embedded resource pack with one font glyph per regularly seen player, showing their whole head,
+ * so their head is sent as a single character instead of one component per pixel.
+ * <p>
+ * A player gets a glyph once their head has been shown {@code head-glyph-pack-min-sightings} times, up to
+ * {@code head-glyph-pack-max-players} players. Glyphs are only ever appended, and the pack is rebuilt in the
+ * background every {@code head-glyph-pack-rebuild-seconds} if glyphs were added or changed. Online players aren't
+ * sent the new pack, as loading it would freeze their screen; they get it on their next join.
+ * </p>
+ * <p>
+ * Each recipient can only be sent the glyphs of the pack version their client loaded, so
+ * {@link #getGlyphHead(UUID, Player)} checks that version; everybody else gets the regular head.
+ * </p>
+ */
+public class HeadGlyphPack implements Listener {
+
+    /**
+     * The first character of the player glyphs, in the Private Use Area.
+     */
+    private static final char FIRST_GLYPH = '\uE000';
+
+    /**
+     * The maximum number of player glyphs, so they stay clear of the pixel glyphs from {@code U+F000}.
+     */
+    private static final int MAX_GLYPHS = 4096;
+
+    /**
+     * The number of glyphs per row of the atlas texture.
+     */
+    private static final int ATLAS_COLUMNS = 16;
+
+    private static final String FONT = "assets/chathead/font/heads.json";
+    private static final String ATLAS = "assets/chathead/textures/heads.png";
+
+    private final Main plugin;
+    private final ResourcePackManager manager;
+    private final byte[] basePack;
+    private final boolean overlay;
+    private final int maxPlayers;
+    private final int minSightings;
+
+    /**
+     * The glyph index of every player who has one. Indexes are assigned in order and never reused.
+     */
+    private final Map<UUID, Integer> glyphs = new ConcurrentHashMap<>();
+
+    /**
+     * The pixels of every glyph, by index.
+     */
+    private final List<int[]> pixels = new CopyOnWriteArrayList<>();
+
+    /**
+     * The single-character head of every glyph, by index.
+     */
+    private final List<BaseComponent[]> glyphHeads = new CopyOnWriteArrayList<>();
+
+    /**
+     * How often the head of each player without a glyph has been shown.
+     */
+    private final Map<UUID, AtomicInteger> sightings = new ConcurrentHashMap<>();
+
+    /**
+     * The number of glyphs of the pack sent to each online player, then of the pack their client loaded.
+     */
+    private final Map<UUID, Integer> sentGlyphs = new ConcurrentHashMap<>();
+    private final Map<UUID, Integer> loadedGlyphs = new ConcurrentHashMap<>();
+
+    /**
+     * The number of glyphs of the pack currently served.
+     */
+    private volatile int publishedGlyphs;
+
+    private volatile boolean dirty;
+
+    /**
+     * Creates the glyph pack and starts its rebuild task.
+     *
+     * @param plugin   the {@link Main} instance.
+     * @param manager  the manager serving the pack.
+     * @param basePack the bytes of the bundled pack the glyphs are added to.
+     */
+    public HeadGlyphPack(Main plugin, ResourcePackManager manager, byte[] basePack) {
+        this.plugin = plugin;
+        this.manager = manager;
+        this.basePack = basePack;
+        this.overlay = plugin.getPluginConfig().getSkinOverlayEnabled();
+        this.maxPlayers = Math.min(plugin.getPluginConfig().getHeadGlyphPackMaxPlayers(), MAX_GLYPHS);
+        this.minSightings = plugin.getPluginConfig().getHeadGlyphPackMinSightings();
+
+        long period = Math.max(1, plugin.getPluginConfig().getHeadGlyphPackRebuildSeconds()) * 20L;
+        plugin.getPluginScheduler().runAsyncTimer(this::rebuild, period, period);
+    }
+
+    /**
+     * Records that a player's head is shown, giving them a glyph once it has been shown often enough.
+     *
+     * @param uuid the UUID of the player.
+     * @param head the head of the player, as rendered in chat.
+     */
+    public void recordSighting(UUID uuid, BaseComponent[] head) {
+        if (glyphs.containsKey(uuid) || glyphs.size() >= maxPlayers) return;
+        // Not fetched yet.
+        if (head.length == 0 || FallbackHead.isFallback(head)) return;
+
+        int count = sightings.computeIfAbsent(uuid, key -> new AtomicInteger()).incrementAndGet();
+        if (count < minSightings) return;
+
+        int[] colors = HeadRenderMode.decode(head);
+        if (colors == null) return;
+
+        synchronized (this) {
+            if (glyphs.containsKey(uuid)) return;
+            int index = pixels.size();
+            pixels.add(colors);
+            glyphHeads.add(createGlyphHead(index));
+            glyphs.put(uuid, index);
+            sightings.remove(uuid);
+            dirty = true;
+        }
+    }
+
+    /**
+     * Retrieves a player's head as a single glyph, if the recipient's pack has it.
+     *
+     * @param uuid      the UUID of the player whose head is shown.
+     * @param recipient the player the head is sent to.
+     * @return the single-character head, or {@code null} to send the regular head.
+     */
+    public @Nullable BaseComponent[] getGlyphHead(UUID uuid, Player recipient) {
+        Integer index = glyphs.get(uuid);
+        if (index == null || index >= loadedGlyphs.getOrDefault(recipient.getUniqueId(), 0)) return null;
+        return glyphHeads.get(index);
+    }
+
+    /**
+     * Records the version of the pack sent to a player.
+     *
+     * @param player the player.
+     */
+    void onSend(Player player) {
+        sentGlyphs.put(player.getUniqueId(), publishedGlyphs);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onResourcePackStatus(PlayerResourcePackStatusEvent event) {
+        if (event.getStatus() != PlayerResourcePackStatusEvent.Status.SUCCESSFULLY_LOADED) return;
+
+        Integer sent = sentGlyphs.get(event.getPlayer().getUniqueId());
+        if (sent != null) loadedGlyphs.put(event.getPlayer().getUniqueId(), sent);
+    }
+
+    @EventHandler
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        sentGlyphs.remove(event.getPlayer().getUniqueId());
+        loadedGlyphs.remove(event.getPlayer().getUniqueId());
+    }
+
+    @EventHandler
+    public void onHeadChange(HeadChangeEvent event) {
+        Integer index = glyphs.get(event.getUuid());
+        if (index == null || event.hasOverlay() != overlay) return;
+
+        int[] colors = HeadRenderMode.decode(event.getNewHead());
+        if (colors == null) return;
+
+        // Clients keep showing the previous head until they load the rebuilt pack.
+        pixels.set(index, colors);
+        dirty = true;
+    }
+
+    /**
+     * Builds and publishes a new version of the pack, if glyphs were added or changed since the last one.
+     */
+    private void rebuild() {
+        if (!dirty) return;
+        dirty = false;
+
+        List<int[]> snapshot = List.copyOf(pixels);
+        try {
+            manager.publish(build(snapshot));
+            publishedGlyphs = snapshot.size();
+        } catch (IOException | RuntimeException e) {
+            dirty = true;
+            plugin.getLogger().log(Level.WARNING, "Could not rebuild the head glyph pack", e);
+        }
+    }
+
+    /**
+     * Copies the base pack, adding the glyph font and its atlas and referencing the font from the default one.
+     */
+    private byte[] build(List<int[]> glyphPixels) throws IOException {
+        ByteArrayOutputStream atlas = new ByteArrayOutputStream(glyphPixels.size() * 256);
+        ImageIO.write(buildAtlas(glyphPixels), "png", atlas);
+
+        Map<String, byte[]> files = new LinkedHashMap<>();
+        files.put(FONT, buildFont(glyphPixels.size()).getBytes(StandardCharsets.UTF_8));
+        files.put(ATLAS, atlas.toByteArray());
+        return PackBuilder.extend(basePack, "chathead:heads", files);
+    }
+
+    /**
+     * Lays out the glyphs in rows of {@value #ATLAS_COLUMNS}, padding the last row with empty cells.
+     */
+    private static String buildFont(int glyphCount) {
+        JSONArray chars = new JSONArray();
+        int rows = Math.max(1, (glyphCount + ATLAS_COLUMNS - 1) / ATLAS_COLUMNS);
+        for (int row = 0; row < rows; row++) {
+            StringBuilder line = new StringBuilder(ATLAS_COLUMNS);
+            for (int column = 0; column < ATLAS_COLUMNS; column++) {
+                int index = row * ATLAS_COLUMNS + column;
+                line.append(index < glyphCount ? (char) (FIRST_GLYPH + index) : '\u0000');
+            }
+            chars.put(line.toString());
+        }
+
+        JSONObject provider = new JSONObject()
+                .put("type", "bitmap")
+                .put("file", "chathead:heads.png")
+                .put("ascent", 8)
+                .put("height", 8)
+                .put("chars", chars);
+        return new JSONObject().put("providers", new JSONArray().put(provider)).toString(2);
+    }
+
+    private static BufferedImage buildAtlas(List<int[]> glyphPixels) {
+        int rows = Math.max(1, (glyphPixels.size() + ATLAS_COLUMNS - 1) / ATLAS_COLUMNS);
+        BufferedImage atlas = new BufferedImage(ATLAS_COLUMNS * 8, rows * 8, BufferedImage.TYPE_INT_ARGB);
+        for (int index = 0; index < glyphPixels.size(); index++) {
+            int originX = (index % ATLAS_COLUMNS) * 8;
+            int originY = (index / ATLAS_COLUMNS) * 8;
+            int[] colors = glyphPixels.get(index);
+            // Pixels are stored column by column.
+            for (int i = 0; i < 64; i++) {
+                atlas.setRGB(originX + i / 8, originY + i % 8, 0xFF000000 | colors[i]);
+            }
+        }
+        return atlas;
+    }
+
+    /**
+     * Creates the single-character head of a glyph. White leaves the glyph's colors untouched.
+     */
+    private static BaseComponent[] createGlyphHead(int index) {
+        TextComponent glyph = new TextComponent(Character.toString((char) (FIRST_GLYPH + index)));
+        glyph.setColor(ChatColor.WHITE);
+
+        TextComponent defaultFont = new TextComponent();
+        defaultFont.setText("");
+        defaultFont.setFont("minecraft:default");
+        return new BaseComponent[]{glyph, defaultFont};
+    }
+}
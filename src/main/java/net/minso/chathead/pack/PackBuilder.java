@@ -0,0 +1,62 @@
+package net.minso.chathead.pack;
+
+import org.json.JSONObject;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Adds generated fonts to a resource pack.
+ */
+final class PackBuilder {
+
+    private static final String DEFAULT_FONT = "assets/minecraft/font/default.json";
+
+    private PackBuilder() {
+    }
+
+    /**
+     * Copies a pack, adding files and referencing a font from the default one, so its glyphs can be used without
+     * setting the font of the component, e.g. in legacy text.
+     *
+     * @param basePack the bytes of the pack.
+     * @param fontId   the namespaced ID of the added font, such as {@code chathead:heads}.
+     * @param files    the added files, by path in the pack.
+     * @return the bytes of the extended pack.
+     * @throws IOException if {@code basePack} isn't a valid zip file.
+     */
+    static byte[] extend(byte[] basePack, String fontId, Map<String, byte[]> files) throws IOException {
+        int size = basePack.length;
+        for (byte[] data : files.values()) size += data.length;
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(size);
+        try (ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(basePack));
+             ZipOutputStream out = new ZipOutputStream(bytes)) {
+            ZipEntry entry;
+            while ((entry = in.getNextEntry()) != null) {
+                byte[] data = in.readAllBytes();
+                if (entry.getName().equals(DEFAULT_FONT)) {
+                    JSONObject font = new JSONObject(new String(data, StandardCharsets.UTF_8));
+                    font.getJSONArray("providers").put(new JSONObject().put("type", "reference").put("id", fontId));
+                    data = font.toString(2).getBytes(StandardCharsets.UTF_8);
+                }
+                out.putNextEntry(new ZipEntry(entry.getName()));
+                out.write(data);
+                out.closeEntry();
+            }
+
+            for (Map.Entry<String, byte[]> file : files.entrySet()) {
+                out.putNextEntry(new ZipEntry(file.getKey()));
+                out.write(file.getValue());
+                out.closeEntry();
+            }
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,113 @@
+package net.minso.chathead.pack;
+
+import net.minso.chathead.API.HeadRenderMode;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Generates the font of {@link HeadRenderMode#PALETTE}: one pre-colored glyph of a single pixel per row of the head
+ * and 12-bit color, 32768 glyphs in total.
+ * <p>
+ * Every row has its own texture of 64x64 cells, one per color. A cell is as tall as the distance from its row to
+ * the bottom of the head and only its top pixel is colored, so the glyph's ascent can place it on its row without
+ * being higher than the glyph itself, which clients reject.
+ * </p>
+ */
+public final class PaletteFont {
+
+    /**
+     * The namespaced ID of the font, referenced from the default font.
+     */
+    public static final String FONT_ID = "chathead:palette";
+
+    private static final String FONT = "assets/chathead/font/palette.json";
+    private static final String TEXTURE = "assets/chathead/textures/palette%d.png";
+
+    /**
+     * The number of colors per row and column of a texture.
+     */
+    private static final int GRID = 64;
+
+    private PaletteFont() {
+    }
+
+    /**
+     * Copies a pack, adding the palette font.
+     *
+     * @param basePack the bytes of the pack.
+     * @return the bytes of the extended pack.
+     * @throws IOException if {@code basePack} isn't a valid zip file.
+     */
+    public static byte[] addTo(byte[] basePack) throws IOException {
+        return PackBuilder.extend(basePack, FONT_ID, generate());
+    }
+
+    /**
+     * Generates the files of the font.
+     *
+     * @return the font definition and its textures, by path in the pack.
+     */
+    public static Map<String, byte[]> generate() {
+        Map<String, byte[]> files = new LinkedHashMap<>();
+        JSONArray providers = new JSONArray();
+        for (int row = 0; row < 8; row++) {
+            int height = 8 - row;
+            providers.put(new JSONObject()
+                    .put("type", "bitmap")
+                    .put("file", "chathead:palette" + (row + 1) + ".png")
+                    .put("ascent", height)
+                    .put("height", height)
+                    .put("chars", chars(row)));
+            files.put(String.format(TEXTURE, row + 1), png(texture(height)));
+        }
+        files.put(FONT, new JSONObject().put("providers", providers).toString(2).getBytes(StandardCharsets.UTF_8));
+        return files;
+    }
+
+    /**
+     * Lays out the glyphs of a row in the order of their colors.
+     */
+    private static JSONArray chars(int row) {
+        JSONArray chars = new JSONArray();
+        int glyph = HeadRenderMode.FIRST_PALETTE_GLYPH + row * GRID * GRID;
+        for (int line = 0; line < GRID; line++) {
+            StringBuilder text = new StringBuilder(GRID * 2);
+            for (int column = 0; column < GRID; column++) {
+                text.appendCodePoint(glyph++);
+            }
+            chars.put(text.toString());
+        }
+        return chars;
+    }
+
+    /**
+     * Draws the top pixel of every cell in the color of its glyph, 4 bits per channel scaled to 8.
+     */
+    private static BufferedImage texture(int cellHeight) {
+        BufferedImage texture = new BufferedImage(GRID, GRID * cellHeight, BufferedImage.TYPE_INT_ARGB);
+        for (int rgb = 0; rgb < GRID * GRID; rgb++) {
+            int color = (rgb >> 8 & 0xF) * 17 << 16 | (rgb >> 4 & 0xF) * 17 << 8 | (rgb & 0xF) * 17;
+            texture.setRGB(rgb % GRID, rgb / GRID * cellHeight, 0xFF000000 | color);
+        }
+        return texture;
+    }
+
+    private static byte[] png(BufferedImage image) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try {
+            ImageIO.write(image, "png", bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+}
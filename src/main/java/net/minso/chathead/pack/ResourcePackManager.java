@@ -0,0 +1,223 @@
+package net.minso.chathead.pack;
+
+import net.minso.chathead.API.HeadRenderMode;
+import net.minso.chathead.API.SkinSource;
+import net.minso.chathead.Main;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.logging.Level;
+
+/**
+ * Decides where players download the resource pack from and sends it along with its SHA-1 hash.
+ * <p>
+ * With the hash, clients reuse their cached copy of the pack instead of downloading it again on every join.
+ * Two hosting modes are available, selected with the {@code resource-pack-hosting} configuration key:
+ * <ul>
+ *     <li>{@code REMOTE}: the pack is downloaded from {@code resource-pack-url} (GitHub by default). Its hash is
+ *     computed once, in the background, by downloading it when the plugin enables.</li>
+ *     <li>{@code EMBEDDED}: the {@code pack.zip} bundled in the plugin is served by a {@link ResourcePackServer}
+ *     on {@code resource-pack-port} of the Minecraft host. With {@code head-glyph-pack}, a {@link HeadGlyphPack}
+ *     adds the heads of regular players to it.</li>
+ * </ul>
+ * </p>
+ * <p>
+ * With {@link HeadRenderMode#PALETTE}, the embedded pack includes the {@link PaletteFont}. The pack at
+ * {@code resource-pack-url} can't be changed by the plugin, so a copy of the bundled pack with the font is written
+ * to {@value #PALETTE_PACK} in the plugin's folder, to be hosted there instead.
+ * </p>
+ */
+public class ResourcePackManager {
+
+    private static final String BUNDLED_PACK = "pack.zip";
+    private static final String PALETTE_PACK = "pack-palette.zip";
+
+    private final Main plugin;
+    private final ResourcePackStatusTracker statusTracker = new ResourcePackStatusTracker();
+
+    /**
+     * The pack sent to joining players. Its URL and hash are replaced together, so a player never gets the URL of
+     * one version with the hash of another, which clients reject.
+     */
+    private volatile Pack pack = new Pack(Main.RESOURCE_PACK, null);
+    private ResourcePackServer server;
+    private HeadGlyphPack glyphPack;
+
+    public ResourcePackManager(Main plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Resolves the pack URL and hash according to the configuration, starting the embedded server if needed.
+     */
+    public void enable() {
+        plugin.getServer().getPluginManager().registerEvents(statusTracker, plugin);
+
+        String hosting = plugin.getPluginConfig().getResourcePackHosting().toUpperCase();
+        if (hosting.equals("EMBEDDED") && startEmbeddedServer()) return;
+
+        String url = plugin.getPluginConfig().getResourcePackUrl();
+        pack = new Pack(url, null);
+        if (SkinSource.getRenderMode() == HeadRenderMode.PALETTE) plugin.getPluginScheduler().runAsync(this::exportPalettePack);
+        plugin.getPluginScheduler().runAsync(() -> {
+            try (InputStream in = new URL(url).openStream()) {
+                pack = new Pack(url, sha1(in.readAllBytes()));
+            } catch (IOException e) {
+                plugin.getLogger().log(Level.WARNING, "Could not download the resource pack to compute its hash, "
+                        + "clients will download it on every join", e);
+            }
+        });
+    }
+
+    /**
+     * Stops the embedded server, if running.
+     */
+    public void disable() {
+        if (server != null) {
+            server.stop();
+            server = null;
+        }
+    }
+
+    /**
+     * Sends the resource pack to a player, with its hash once known.
+     *
+     * @param player the player.
+     */
+    public void sendPack(Player player) {
+        if (glyphPack != null) glyphPack.onSend(player);
+
+        Pack pack = this.pack;
+        if (pack.hash() != null) {
+            player.setResourcePack(pack.url(), pack.hash());
+        } else {
+            player.setResourcePack(pack.url());
+        }
+    }
+
+    /**
+     * @return the URL players download the pack from.
+     */
+    public String getUrl() {
+        return pack.url();
+    }
+
+    /**
+     * @return the SHA-1 hash of the pack, or {@code null} if it isn't known (yet).
+     */
+    @Nullable
+    public byte[] getHash() {
+        return pack.hash();
+    }
+
+    /**
+     * @return the glyph pack adding the heads of regular players to the embedded pack, or {@code null} if disabled.
+     */
+    @Nullable
+    public HeadGlyphPack getGlyphPack() {
+        return glyphPack;
+    }
+
+    /**
+     * Serves a new version of the embedded pack to players joining from now on.
+     *
+     * @param pack the bytes of the new pack.
+     */
+    void publish(byte[] pack) {
+        byte[] packHash = sha1(pack);
+        String hex = HexFormat.of().formatHex(packHash);
+        server.update(pack, hex);
+
+        String url = this.pack.url();
+        this.pack = new Pack(url.substring(0, url.lastIndexOf('/') + 1) + hex + ".zip", packHash);
+    }
+
+    /**
+     * @return the tracker of the pack status reported by each player.
+     */
+    public ResourcePackStatusTracker getStatusTracker() {
+        return statusTracker;
+    }
+
+    private boolean startEmbeddedServer() {
+        byte[] pack;
+        try (InputStream in = plugin.getResource(BUNDLED_PACK)) {
+            if (in == null) {
+                plugin.getLogger().warning("The plugin doesn't bundle " + BUNDLED_PACK + ", falling back to resource-pack-url.");
+                return false;
+            }
+            pack = in.readAllBytes();
+            if (SkinSource.getRenderMode() == HeadRenderMode.PALETTE) pack = PaletteFont.addTo(pack);
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.WARNING, "Could not read the bundled resource pack, falling back to resource-pack-url", e);
+            return false;
+        }
+
+        byte[] packHash = sha1(pack);
+        String hex = HexFormat.of().formatHex(packHash);
+        int port = plugin.getPluginConfig().getResourcePackPort();
+        try {
+            server = new ResourcePackServer(port, pack, hex);
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.WARNING, "Could not serve the resource pack on port " + port + ", falling back to resource-pack-url", e);
+            return false;
+        }
+
+        String address = plugin.getPluginConfig().getResourcePackPublicAddress();
+        if (address.isEmpty()) address = plugin.getServer().getIp();
+        if (address.isEmpty()) {
+            address = "localhost";
+            plugin.getLogger().warning("Set resource-pack-public-address to the address players use to reach this server.");
+        }
+
+        // The hash in the path makes the URL change whenever the pack does.
+        this.pack = new Pack("http://" + address + ":" + port + "/" + hex + ".zip", packHash);
+        plugin.getLogger().info("Serving the resource pack at " + this.pack.url());
+
+        if (plugin.getPluginConfig().getHeadGlyphPackEnabled()) {
+            glyphPack = new HeadGlyphPack(plugin, this, pack);
+            plugin.getServer().getPluginManager().registerEvents(glyphPack, plugin);
+        }
+        return true;
+    }
+
+    /**
+     * Writes the bundled pack with the {@link PaletteFont} to the plugin's folder.
+     */
+    private void exportPalettePack() {
+        File file = new File(plugin.getDataFolder(), PALETTE_PACK);
+        try (InputStream in = plugin.getResource(BUNDLED_PACK)) {
+            if (in == null) return;
+            Files.write(file.toPath(), PaletteFont.addTo(in.readAllBytes()));
+            plugin.getLogger().warning("head-render-mode PALETTE needs the pack written to " + file.getPath()
+                    + ": host it at resource-pack-url, or set resource-pack-hosting to EMBEDDED.");
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.WARNING, "Could not write " + file.getPath(), e);
+        }
+    }
+
+    private static byte[] sha1(byte[] bytes) {
+        try {
+            return MessageDigest.getInstance("SHA-1").digest(bytes);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1 is not supported by this JVM", e);
+        }
+    }
+
+    /**
+     * A version of the resource pack as sent to players.
+     *
+     * @param url  the URL players download the pack from.
+     * @param hash the SHA-1 hash of the pack, or {@code null} if it isn't known (yet).
+     */
+    private record Pack(String url, @Nullable byte[] hash) {
+    }
+}
@@ -0,0 +1,89 @@
+package net.minso.chathead.pack;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * A minimal HTTP server serving the resource pack from the Minecraft host.
+ * <p>
+ * Every path answers with the pack, so the URL sent to clients can carry a cache-busting suffix.
+ * The pack is held in memory; it is only a few kilobytes.
+ * </p>
+ */
+public class ResourcePackServer {
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    private volatile Pack pack;
+
+    /**
+     * Starts serving the pack.
+     *
+     * @param port the port to listen on, on all interfaces.
+     * @param pack the bytes of the pack.
+     * @param sha1 the hex SHA-1 of the pack, sent as the {@code ETag}.
+     * @throws IOException if the port couldn't be bound.
+     */
+    public ResourcePackServer(int port, byte[] pack, String sha1) throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress(port), 0);
+        this.executor = Executors.newFixedThreadPool(2, task -> {
+            Thread thread = new Thread(task, "ChatHead-PackServer");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.pack = new Pack(pack, sha1);
+        server.createContext("/", exchange -> handle(exchange, this.pack));
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    /**
+     * Replaces the pack served from now on. Downloads already in progress finish with the previous pack.
+     *
+     * @param pack the bytes of the new pack.
+     * @param sha1 the hex SHA-1 of the new pack.
+     */
+    public void update(byte[] pack, String sha1) {
+        this.pack = new Pack(pack, sha1);
+    }
+
+    private static void handle(HttpExchange exchange, Pack pack) throws IOException {
+        try (exchange) {
+            if (!exchange.getRequestMethod().equals("GET") && !exchange.getRequestMethod().equals("HEAD")) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+
+            exchange.getResponseHeaders().set("Content-Type", "application/zip");
+            exchange.getResponseHeaders().set("ETag", "\"" + pack.sha1 + "\"");
+            if (exchange.getRequestMethod().equals("HEAD")) {
+                exchange.sendResponseHeaders(200, -1);
+                return;
+            }
+
+            exchange.sendResponseHeaders(200, pack.bytes.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(pack.bytes);
+            }
+        }
+    }
+
+    /**
+     * Stops the server, closing open connections.
+     */
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private record Pack(byte[] bytes, String sha1) {
+    }
+}
@@ -0,0 +1,78 @@
+package net.minso.chathead.pack;
+
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerResourcePackStatusEvent;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Tracks the last resource pack status reported by each online player, and which players can't display heads at all.
+ */
+public class ResourcePackStatusTracker implements Listener {
+
+    private final Map<UUID, PlayerResourcePackStatusEvent.Status> statuses = new ConcurrentHashMap<>();
+
+    /**
+     * Whether a player joined from Bedrock Edition, whose clients don't load Java resource packs.
+     */
+    private volatile Predicate<UUID> bedrockCheck = uuid -> false;
+
+    /**
+     * Sets how Bedrock players are recognized, e.g. through Floodgate.
+     *
+     * @param bedrockCheck whether the player with the given UUID joined from Bedrock Edition.
+     */
+    public void setBedrockCheck(Predicate<UUID> bedrockCheck) {
+        this.bedrockCheck = bedrockCheck;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onResourcePackStatus(PlayerResourcePackStatusEvent event) {
+        statuses.put(event.getPlayer().getUniqueId(), event.getStatus());
+    }
+
+    @EventHandler
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        statuses.remove(event.getPlayer().getUniqueId());
+    }
+
+    /**
+     * @param player the player.
+     * @return the last status reported by the player, or {@code null} if none was reported yet.
+     */
+    @Nullable
+    public PlayerResourcePackStatusEvent.Status getStatus(Player player) {
+        return statuses.get(player.getUniqueId());
+    }
+
+    /**
+     * @param player the player.
+     * @return {@code true} if the player reported the pack as successfully loaded.
+     */
+    public boolean isLoaded(Player player) {
+        return getStatus(player) == PlayerResourcePackStatusEvent.Status.SUCCESSFULLY_LOADED;
+    }
+
+    /**
+     * Checks whether a player is known to be unable to display heads: they declined or failed to download the pack,
+     * or joined from Bedrock Edition. Players who haven't reported any status may have the pack installed locally,
+     * so they aren't.
+     *
+     * @param player the player.
+     * @return {@code true} if heads sent to the player would show as unknown characters.
+     */
+    public boolean isWithoutPack(Player player) {
+        PlayerResourcePackStatusEvent.Status status = getStatus(player);
+        return status == PlayerResourcePackStatusEvent.Status.DECLINED
+                || status == PlayerResourcePackStatusEvent.Status.FAILED_DOWNLOAD
+                || bedrockCheck.test(player.getUniqueId());
+    }
+}
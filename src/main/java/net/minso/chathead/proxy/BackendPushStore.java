@@ -0,0 +1,80 @@
+package net.minso.chathead.proxy;
+
+import net.md_5.bungee.api.chat.BaseComponent;
+import net.md_5.bungee.api.config.ServerInfo;
+import net.md_5.bungee.api.connection.Server;
+import net.minso.chathead.API.shared.SharedHeadMessage;
+import net.minso.chathead.API.shared.SharedHeadStore;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.logging.Level;
+
+/**
+ * {@link SharedHeadStore} of the proxy, pushing every head rendered at the proxy to the backend servers.
+ * <p>
+ * Heads are sent on the {@code BungeeCord} channel in the same format as a {@code Forward} message, so backends
+ * using the {@code PROXY} shared cache store them and skip fetching the head themselves. The proxy is the only
+ * source of heads, so lookups always miss.
+ * </p>
+ */
+public class BackendPushStore implements SharedHeadStore {
+
+    private static final String CHANNEL = "BungeeCord";
+
+    private final ChatHeadProxy plugin;
+
+    public BackendPushStore(ChatHeadProxy plugin) {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public @Nullable BaseComponent[] load(String key, long maxAgeMillis) {
+        return null;
+    }
+
+    @Override
+    public void store(String key, BaseComponent[] head) {
+        byte[] message = encode(key, head);
+        if (message == null) return;
+
+        for (ServerInfo server : plugin.getProxy().getServers().values()) {
+            // Not queued: a server without players receives the head when a player connects to it.
+            server.sendData(CHANNEL, message, false);
+        }
+    }
+
+    /**
+     * Sends a single head to one backend server, over the connection of a player connected to it.
+     *
+     * @param server the connection to send the head through.
+     * @param key    the cache key of the head.
+     * @param head   the head.
+     */
+    public void send(Server server, String key, BaseComponent[] head) {
+        byte[] message = encode(key, head);
+        if (message != null) server.sendData(CHANNEL, message);
+    }
+
+    /**
+     * Builds the message a backend receives for a {@code Forward}ed head.
+     */
+    private byte[] encode(String key, BaseComponent[] head) {
+        try {
+            byte[] payload = new SharedHeadMessage(key, head).encode();
+
+            ByteArrayOutputStream message = new ByteArrayOutputStream();
+            try (DataOutputStream out = new DataOutputStream(message)) {
+                out.writeUTF(SharedHeadMessage.SUBCHANNEL);
+                out.writeShort(payload.length);
+                out.write(payload);
+            }
+            return message.toByteArray();
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.WARNING, "Could not encode head " + key, e);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package net.minso.chathead.proxy;
+
+import net.md_5.bungee.api.chat.BaseComponent;
+import net.md_5.bungee.api.connection.ProxiedPlayer;
+import net.md_5.bungee.api.plugin.Plugin;
+import net.minso.chathead.API.FallbackHead;
+import net.minso.chathead.API.FetchPriority;
+import net.minso.chathead.API.HeadCache;
+import net.minso.chathead.API.HeadCachePlatform;
+import net.minso.chathead.API.HeadRenderMode;
+import net.minso.chathead.API.SkinSource;
+import net.minso.chathead.API.SkinSourceEnum;
+import net.minso.chathead.API.fetch.ExecutorFetchEngine;
+import net.minso.chathead.API.fetch.FetchEngine;
+import net.minso.chathead.API.fetch.PriorityFetchQueue;
+import net.minso.chathead.API.fetch.VirtualThreadFetchEngine;
+import net.minso.chathead.API.metrics.HeadMetrics;
+import net.minso.chathead.API.shared.SharedHeadStore;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The BungeeCord plugin of ChatHeadFont, rendering heads once at the proxy for the whole network.
+ * <p>
+ * Chat formatted at the proxy gets its heads from {@link #getHead(UUID, String, boolean, FetchPriority)}. Every head rendered
+ * here is also pushed to the backend servers, so backends using the {@code PROXY} shared cache don't fetch
+ * heads themselves.
+ * </p>
+ * <p>
+ * Example usage:
+ * <pre>
+ *     BaseComponent[] head = ChatHeadProxy.getInstance().getHead(proxiedPlayer);
+ * </pre>
+ * </p>
+ */
+public class ChatHeadProxy extends Plugin {
+
+    private static ChatHeadProxy instance;
+
+    private final ProxyConfig config = new ProxyConfig(this);
+
+    private SkinSource defaultSource;
+    private HeadMetrics metrics;
+    private FetchEngine fetchEngine;
+    private BackendPushStore backendPushStore;
+    private HeadCache headCache;
+
+    @Override
+    public void onEnable() {
+        try {
+            config.init();
+        } catch (IOException e) {
+            getLogger().log(Level.WARNING, "Could not save config.yml, using the default configuration", e);
+        }
+
+        defaultSource = SkinSourceEnum.fromName(config.getSkinSource()).createSource(getProxy().getConfig().isOnlineMode());
+        SkinSource.setRenderMode(HeadRenderMode.fromName(config.getHeadRenderMode()), config.getHeadPaletteMergeThreshold());
+        SkinSource.setLogger(getLogger());
+        metrics = new HeadMetrics();
+        fetchEngine = createFetchEngine();
+        backendPushStore = new BackendPushStore(this);
+        SharedHeadStore sharedStore = config.getPushToBackendsEnabled() ? backendPushStore : SharedHeadStore.NONE;
+        int maxConcurrency = config.getFetchMaxConcurrency();
+        if (maxConcurrency <= 0) maxConcurrency = fetchEngine.getDefaultMaxConcurrency();
+        PriorityFetchQueue fetchQueue = new PriorityFetchQueue(fetchEngine, maxConcurrency, metrics);
+        headCache = new HeadCache(new BungeePlatform(), config.getHeadCacheEntryLifetimeSeconds() * 1000L,
+                metrics, fetchQueue, sharedStore);
+        headCache.setFallbackEnabled(config.getFallbackHeadEnabled());
+        if (config.getFallbackHeadEnabled()) {
+            fetchEngine.execute(() -> FallbackHead.loadAlex(defaultSource, getLogger()));
+        }
+
+        long cleanupPeriod = headCache.getExpirationMillis() / 20;
+        getProxy().getScheduler().schedule(this, headCache::cleanup, cleanupPeriod, cleanupPeriod, TimeUnit.MILLISECONDS);
+
+        int exportInterval = config.getMetricsExportIntervalSeconds();
+        if (exportInterval > 0) {
+            getProxy().getScheduler().schedule(this, () -> metrics.export(getLogger()), exportInterval, exportInterval, TimeUnit.SECONDS);
+        }
+
+        getProxy().getPluginManager().registerListener(this, new ProxyListener(this));
+        instance = this;
+        getLogger().info("Fetching heads using: " + fetchEngine.getName());
+    }
+
+    @Override
+    public void onDisable() {
+        instance = null;
+        getProxy().getScheduler().cancel(this);
+        if (fetchEngine != null) fetchEngine.shutdown();
+    }
+
+    /**
+     * Retrieves the running instance of the proxy plugin.
+     *
+     * @return the running instance.
+     * @throws IllegalArgumentException if the plugin isn't enabled.
+     */
+    public static ChatHeadProxy getInstance() {
+        if (instance == null) {
+            throw new IllegalArgumentException("ChatHeadProxy has not been enabled.");
+        }
+        return instance;
+    }
+
+    /**
+     * Retrieves an 8x8 pixel head representation for the specified {@link ProxiedPlayer}, using the configured
+     * overlay setting and skin source. Missing heads are fetched with {@link FetchPriority#HIGH}.
+     *
+     * @param player the player whose head is to be retrieved.
+     * @return an array of {@link BaseComponent} objects representing the player's head. While it is fetched, the
+     * player's fallback head if {@code fallback-head} is enabled, otherwise an empty array.
+     */
+    public BaseComponent[] getHead(ProxiedPlayer player) {
+        return getHead(player.getUniqueId(), player.getName(), config.getSkinOverlayEnabled(), FetchPriority.HIGH);
+    }
+
+    /**
+     * Retrieves an 8x8 pixel head representation for the specified player, using the configured skin source.
+     *
+     * @param uuid    the UUID of the player whose head is to be retrieved.
+     * @param name    the name of the player, {@code null} if unknown.
+     * @param overlay  {@code true} to apply the skin overlay; {@code false} otherwise.
+     * @param priority the {@link FetchPriority} of the fetch, if one is needed.
+     * @return an array of {@link BaseComponent} objects representing the player's head. While it is fetched, the
+     * player's fallback head if {@code fallback-head} is enabled, otherwise an empty array.
+     */
+    public BaseComponent[] getHead(UUID uuid, @Nullable String name, boolean overlay, FetchPriority priority) {
+        return headCache.getCachedHead(uuid, name, overlay, defaultSource, priority);
+    }
+
+    /**
+     * @return the {@link HeadMetrics} collecting cache and fetch statistics of the proxy.
+     */
+    public HeadMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * @return the {@link SkinSource} heads are fetched from.
+     */
+    public SkinSource getDefaultSource() {
+        return defaultSource;
+    }
+
+    ProxyConfig getProxyConfig() {
+        return config;
+    }
+
+    BackendPushStore getBackendPushStore() {
+        return backendPushStore;
+    }
+
+    /**
+     * Creates the engine selected by the {@code fetch-engine} configuration key: {@code VIRTUAL} or {@code AUTO}
+     * use virtual threads when available, anything else a small pool of platform threads.
+     */
+    private FetchEngine createFetchEngine() {
+        String engine = config.getFetchEngine().toUpperCase();
+        if (!engine.equals("EXECUTOR") && VirtualThreadFetchEngine.isSupported()) {
+            try {
+                return new VirtualThreadFetchEngine(getLogger());
+            } catch (ReflectiveOperationException e) {
+                getLogger().log(Level.WARNING, "Could not create virtual threads, falling back to a thread pool", e);
+            }
+        }
+
+        AtomicInteger threadCount = new AtomicInteger();
+        return new ExecutorFetchEngine(Executors.newCachedThreadPool(task -> {
+            Thread thread = new Thread(task, "ChatHead-Fetch-" + threadCount.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }), "Thread pool");
+    }
+
+    /**
+     * {@link HeadCachePlatform} backed by the proxy.
+     */
+    private class BungeePlatform implements HeadCachePlatform {
+
+        @Override
+        public boolean isEnabled() {
+            return instance == ChatHeadProxy.this;
+        }
+
+        @Override
+        public boolean isOnline(UUID uuid) {
+            return getProxy().getPlayer(uuid) != null;
+        }
+
+        @Override
+        public @Nullable String getName(UUID uuid) {
+            ProxiedPlayer player = getProxy().getPlayer(uuid);
+            return player != null ? player.getName() : null;
+        }
+
+        @Override
+        public Logger getLogger() {
+            return ChatHeadProxy.this.getLogger();
+        }
+    }
+}
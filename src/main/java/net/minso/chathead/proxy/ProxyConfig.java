@@ -0,0 +1,86 @@
+package net.minso.chathead.proxy;
+
+import net.md_5.bungee.config.Configuration;
+import net.md_5.bungee.config.ConfigurationProvider;
+import net.md_5.bungee.config.YamlConfiguration;
+
+import java.io.File;
+import java.io.IOException;
+
+public class ProxyConfig {
+    private final ChatHeadProxy plugin;
+    private Configuration config = new Configuration();
+
+    public ProxyConfig(ChatHeadProxy plugin) {
+        this.plugin = plugin;
+    }
+
+    public String getSkinSource() {
+        return config.getString("skin-source", "MOJANG");
+    }
+
+    public boolean getSkinOverlayEnabled() {
+        return config.getBoolean("enable-skin-overlay", true);
+    }
+
+    public String getHeadRenderMode() {
+        return config.getString("head-render-mode", "FULL");
+    }
+
+    public int getHeadPaletteMergeThreshold() {
+        return config.getInt("head-palette-merge-threshold", 0);
+    }
+
+    public boolean getFallbackHeadEnabled() {
+        return config.getBoolean("fallback-head", true);
+    }
+
+    public int getHeadCacheEntryLifetimeSeconds() {
+        return config.getInt("head-cache-entry-lifetime-seconds", 300);
+    }
+
+    public int getMetricsExportIntervalSeconds() {
+        return config.getInt("metrics-export-interval-seconds", 60);
+    }
+
+    public int getFetchMaxConcurrency() {
+        return config.getInt("fetch-max-concurrency", 0);
+    }
+
+    public String getFetchEngine() {
+        return config.getString("fetch-engine", "AUTO");
+    }
+
+    public boolean getPushToBackendsEnabled() {
+        return config.getBoolean("push-heads-to-backends", true);
+    }
+
+    public void init() throws IOException {
+        File file = new File(plugin.getDataFolder(), "config.yml");
+        ConfigurationProvider provider = ConfigurationProvider.getProvider(YamlConfiguration.class);
+        if (file.exists()) {
+            config = provider.load(file);
+        }
+
+        //default configuration:
+        setDefault("skin-source", "MOJANG");
+        setDefault("enable-skin-overlay", true);
+        setDefault("head-cache-entry-lifetime-seconds", 300);
+        setDefault("fallback-head", true);
+        setDefault("head-render-mode", "FULL");
+        setDefault("head-palette-merge-threshold", 0);
+        setDefault("metrics-export-interval-seconds", 60);
+        setDefault("fetch-engine", "AUTO");
+        setDefault("fetch-max-concurrency", 0);
+        setDefault("push-heads-to-backends", true);
+
+        if (!plugin.getDataFolder().exists() && !plugin.getDataFolder().mkdirs()) {
+            throw new IOException("Could not create " + plugin.getDataFolder());
+        }
+        provider.save(config, file);
+    }
+
+    private void setDefault(String key, Object value) {
+        if (!config.contains(key)) config.set(key, value);
+    }
+}
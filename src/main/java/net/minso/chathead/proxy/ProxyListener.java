@@ -0,0 +1,37 @@
+package net.minso.chathead.proxy;
+
+import net.md_5.bungee.api.chat.BaseComponent;
+import net.md_5.bungee.api.connection.ProxiedPlayer;
+import net.md_5.bungee.api.event.PostLoginEvent;
+import net.md_5.bungee.api.event.ServerConnectedEvent;
+import net.md_5.bungee.api.plugin.Listener;
+import net.md_5.bungee.event.EventHandler;
+import net.minso.chathead.API.FallbackHead;
+import net.minso.chathead.API.HeadCache;
+
+public class ProxyListener implements Listener {
+    private final ChatHeadProxy plugin;
+
+    public ProxyListener(ChatHeadProxy plugin) {
+        this.plugin = plugin;
+    }
+
+    @EventHandler
+    public void onPostLogin(PostLoginEvent event) {
+        // Starts fetching the head while the player is still connecting to a backend.
+        plugin.getHead(event.getPlayer());
+    }
+
+    @EventHandler
+    public void onServerConnected(ServerConnectedEvent event) {
+        if (!plugin.getProxyConfig().getPushToBackendsEnabled()) return;
+
+        ProxiedPlayer player = event.getPlayer();
+        boolean overlay = plugin.getProxyConfig().getSkinOverlayEnabled();
+        BaseComponent[] head = plugin.getHead(player);
+        // Not fetched yet: the fallback head must not be published as the player's head.
+        if (head.length == 0 || FallbackHead.isFallback(head)) return;
+
+        plugin.getBackendPushStore().send(event.getServer(), HeadCache.getCacheKey(player.getUniqueId(), overlay, plugin.getDefaultSource().getSkinSource()), head);
+    }
+}
@@ -0,0 +1,172 @@
+package net.minso.chathead;
+
+import net.md_5.bungee.api.chat.BaseComponent;
+import net.minso.chathead.API.FallbackHead;
+import net.minso.chathead.API.FetchPriority;
+import net.minso.chathead.API.HeadCache;
+import net.minso.chathead.API.HeadCachePlatform;
+import net.minso.chathead.API.SkinSource;
+import net.minso.chathead.API.SkinSourceEnum;
+import net.minso.chathead.API.fetch.FetchEngine;
+import net.minso.chathead.API.fetch.PriorityFetchQueue;
+import net.minso.chathead.API.metrics.HeadMetrics;
+import net.minso.chathead.API.shared.SharedHeadStore;
+import net.minso.chathead.listener.HeadPrefixCache;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * Fails when a hot path allocates more bytes per operation than its budget.
+ * <p>
+ * Measures, with {@code ThreadMXBean.getThreadAllocatedBytes}, the bytes allocated by a
+ * {@code HeadCache.getCachedHead} hit, a {@code HeadCache.getCachedHeadAsString} hit and by
+ * {@code HeadPrefixCache.prepend} on a cached head, as done by {@code PlayerListener} for every chat message. Hits are
+ * a map lookup and must not allocate at all; prepending a cached head must allocate no more than the message it
+ * returns, so its budget only covers the bytes allocated besides that message. Every path runs warm, after enough
+ * iterations for the JIT to have compiled it.
+ * </p>
+ * <p>
+ * Bound to the {@code verify} phase, with the budgets set by the {@code budget.*} properties of the {@code pom.xml}.
+ * Usage: {@code java -cp <test classpath> net.minso.chathead.AllocationBudgetCheck [cacheHitBytes]
+ * [headAsStringBytes] [prependBytes]}
+ * </p>
+ */
+public final class AllocationBudgetCheck {
+
+    private static final int WARMUP_ITERATIONS = 50_000;
+    private static final int MEASURED_ITERATIONS = 100_000;
+
+    private static final UUID PLAYER = UUID.fromString("069a79f4-44e9-4726-a5be-fca90e38aaf5");
+    private static final String MESSAGE = "<Notch> Hello there, how is everyone doing today?";
+
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private final List<String> failures = new ArrayList<>();
+
+    /**
+     * Keeps the results of the measured operations alive, so the JIT can't eliminate them.
+     */
+    private int sink;
+
+    private AllocationBudgetCheck() {
+    }
+
+    public static void main(String[] args) {
+        long cacheHitBudget = longArg(args, 0, 0);
+        long headAsStringBudget = longArg(args, 1, 0);
+        long prependBudget = longArg(args, 2, 64);
+
+        // Any rendered head will do, the bundled one needs no skin download.
+        BaseComponent[] head = FallbackHead.STEVE.getHead();
+        SkinSource source = new SkinSource(SkinSourceEnum.MOJANG, false) {
+            @Override
+            public BaseComponent[] getHead(UUID uuid, @Nullable String name, boolean overlay) {
+                return head;
+            }
+        };
+        HeadCache cache = createCache();
+        // The first lookup fetches the head inline, every later one is a hit.
+        BaseComponent[] cachedHead = cache.getCachedHead(PLAYER, null, true, source, FetchPriority.NORMAL);
+
+        HeadPrefixCache prefixes = new HeadPrefixCache();
+        long messageBytes = stringBytes(prefixes.prepend(PLAYER, cachedHead, MESSAGE, true));
+
+        AllocationBudgetCheck check = new AllocationBudgetCheck();
+        check.measure("HeadCache.getCachedHead (hit)", cacheHitBudget, 0,
+                () -> cache.getCachedHead(PLAYER, null, true, source, FetchPriority.NORMAL));
+        check.measure("HeadCache.getCachedHeadAsString (hit)", headAsStringBudget, 0,
+                () -> cache.getCachedHeadAsString(PLAYER, null, true, source, FetchPriority.NORMAL));
+        check.measure("HeadPrefixCache.prepend", prependBudget, messageBytes,
+                () -> prefixes.prepend(PLAYER, cache.getCachedHead(PLAYER, null, true, source, FetchPriority.NORMAL), MESSAGE, true));
+
+        if (!check.failures.isEmpty()) {
+            throw new IllegalStateException("Allocation budget exceeded: " + String.join(", ", check.failures));
+        }
+    }
+
+    /**
+     * Measures the bytes allocated per call of an operation, besides the bytes of the result it returns, and records
+     * a failure if they exceed its budget.
+     */
+    private void measure(String name, long budget, long resultBytes, Supplier<?> operation) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            sink += operation.get().hashCode();
+        }
+
+        long threadId = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            sink += operation.get().hashCode();
+        }
+        long bytesPerOperation = (threads.getThreadAllocatedBytes(threadId) - before) / MEASURED_ITERATIONS;
+        long overhead = Math.max(0, bytesPerOperation - resultBytes);
+
+        boolean exceeded = overhead > budget;
+        System.out.printf("%-38s %8d B/op, %6d B/op besides its result (budget %d B/op)%s%n",
+                name, bytesPerOperation, overhead, budget, exceeded ? "  EXCEEDED" : "");
+        if (exceeded) failures.add(name + " allocates " + overhead + " B/op besides its result");
+    }
+
+    /**
+     * Estimates the heap size of a string and of its compact byte array, with compressed references.
+     */
+    private static long stringBytes(String string) {
+        boolean latin1 = string.chars().allMatch(c -> c <= 0xFF);
+        long array = 16 + (long) string.length() * (latin1 ? 1 : 2);
+        return 24 + (array + 7) / 8 * 8;
+    }
+
+    /**
+     * Creates a cache of offline players whose fetches run inline, so no thread is started.
+     */
+    private static HeadCache createCache() {
+        HeadCachePlatform platform = new HeadCachePlatform() {
+            @Override
+            public boolean isEnabled() {
+                return true;
+            }
+
+            @Override
+            public boolean isOnline(UUID uuid) {
+                return false;
+            }
+
+            @Override
+            public @Nullable String getName(UUID uuid) {
+                return null;
+            }
+
+            @Override
+            public Logger getLogger() {
+                return Logger.getLogger("ChatHead");
+            }
+        };
+        FetchEngine inline = new FetchEngine() {
+            @Override
+            public void execute(Runnable fetch) {
+                fetch.run();
+            }
+
+            @Override
+            public void shutdown() {
+            }
+
+            @Override
+            public String getName() {
+                return "inline";
+            }
+        };
+        HeadMetrics metrics = new HeadMetrics();
+        return new HeadCache(platform, Long.MAX_VALUE / 2, metrics, new PriorityFetchQueue(inline, 1, metrics), SharedHeadStore.NONE);
+    }
+
+    private static long longArg(String[] args, int index, long defaultValue) {
+        return args.length > index ? Long.parseLong(args[index]) : defaultValue;
+    }
+}
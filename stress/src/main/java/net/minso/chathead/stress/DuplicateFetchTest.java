@@ -0,0 +1,39 @@
+package net.minso.chathead.stress;
+
+import org.openjdk.jcstress.annotations.Actor;
+import org.openjdk.jcstress.annotations.Arbiter;
+import org.openjdk.jcstress.annotations.Description;
+import org.openjdk.jcstress.annotations.Expect;
+import org.openjdk.jcstress.annotations.JCStressTest;
+import org.openjdk.jcstress.annotations.Outcome;
+import org.openjdk.jcstress.annotations.State;
+import org.openjdk.jcstress.infra.results.I_Result;
+
+/**
+ * Two threads miss the same head at once: only the one moving the slot to {@code Loading} fetches it, the other
+ * joins that fetch or finds the fetched head.
+ */
+@JCStressTest
+@Description("Concurrent misses of the same head fetch it once.")
+@Outcome(id = "1", expect = Expect.ACCEPTABLE, desc = "A single fetch.")
+@Outcome(expect = Expect.FORBIDDEN, desc = "The head was fetched more than once.")
+@State
+public class DuplicateFetchTest {
+
+    private final StressCache cache = new StressCache(60_000, false);
+
+    @Actor
+    public void first() {
+        cache.lookup();
+    }
+
+    @Actor
+    public void second() {
+        cache.lookup();
+    }
+
+    @Arbiter
+    public void arbiter(I_Result result) {
+        result.r1 = cache.getFetches();
+    }
+}
@@ -0,0 +1,40 @@
+package net.minso.chathead.stress;
+
+import org.openjdk.jcstress.annotations.Actor;
+import org.openjdk.jcstress.annotations.Arbiter;
+import org.openjdk.jcstress.annotations.Description;
+import org.openjdk.jcstress.annotations.Expect;
+import org.openjdk.jcstress.annotations.JCStressTest;
+import org.openjdk.jcstress.annotations.Outcome;
+import org.openjdk.jcstress.annotations.State;
+import org.openjdk.jcstress.infra.results.II_Result;
+
+/**
+ * Two lookups miss a head while the fetch engine throws on every fetch, as the server scheduler does once the plugin
+ * is disabled. The slot must leave {@code Loading} and the lookups must return normally.
+ */
+@JCStressTest
+@Description("A fetch engine throwing unexpected exceptions leaves no slot loading.")
+@Outcome(id = "0, 0", expect = Expect.ACCEPTABLE, desc = "No slot left loading, nothing fetched.")
+@Outcome(expect = Expect.FORBIDDEN, desc = "A slot was left loading.")
+@State
+public class FailingEngineTest {
+
+    private final StressCache cache = new StressCache(60_000, false, new StressCache.FailingFetchEngine());
+
+    @Actor
+    public void first() {
+        cache.lookup();
+    }
+
+    @Actor
+    public void second() {
+        cache.lookup();
+    }
+
+    @Arbiter
+    public void arbiter(II_Result result) {
+        result.r1 = (int) cache.getQueueDepth();
+        result.r2 = cache.getFetches();
+    }
+}
@@ -0,0 +1,46 @@
+package net.minso.chathead.stress;
+
+import org.openjdk.jcstress.annotations.Actor;
+import org.openjdk.jcstress.annotations.Arbiter;
+import org.openjdk.jcstress.annotations.Description;
+import org.openjdk.jcstress.annotations.Expect;
+import org.openjdk.jcstress.annotations.JCStressTest;
+import org.openjdk.jcstress.annotations.Outcome;
+import org.openjdk.jcstress.annotations.State;
+import org.openjdk.jcstress.infra.results.II_Result;
+
+/**
+ * Two lookups race with a cleanup on a head that expires right away. Every fetch must leave its slot, so none
+ * stays {@code Loading} forever, and the second lookup may fetch the expired head again but never more than that.
+ */
+@JCStressTest
+@Description("Fetches racing with cleanup always complete their slot.")
+@Outcome(id = "0, 1", expect = Expect.ACCEPTABLE, desc = "One fetch, the second lookup joined it or found the head.")
+@Outcome(id = "0, 2", expect = Expect.ACCEPTABLE, desc = "The second lookup found the head expired and fetched it again.")
+@Outcome(expect = Expect.FORBIDDEN, desc = "A slot was left loading, or a lookup was answered by no fetch at all.")
+@State
+public class LostFetchTest {
+
+    private final StressCache cache = new StressCache(0, false);
+
+    @Actor
+    public void first() {
+        cache.lookup();
+    }
+
+    @Actor
+    public void second() {
+        cache.lookup();
+    }
+
+    @Actor
+    public void cleanup() {
+        cache.cleanup();
+    }
+
+    @Arbiter
+    public void arbiter(II_Result result) {
+        result.r1 = (int) cache.getQueueDepth();
+        result.r2 = cache.getFetches();
+    }
+}
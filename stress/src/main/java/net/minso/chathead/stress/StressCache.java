@@ -0,0 +1,148 @@
+package net.minso.chathead.stress;
+
+import net.md_5.bungee.api.chat.BaseComponent;
+import net.md_5.bungee.api.chat.TextComponent;
+import net.minso.chathead.API.FetchPriority;
+import net.minso.chathead.API.HeadCache;
+import net.minso.chathead.API.HeadCachePlatform;
+import net.minso.chathead.API.SkinSource;
+import net.minso.chathead.API.SkinSourceEnum;
+import net.minso.chathead.API.fetch.FetchEngine;
+import net.minso.chathead.API.fetch.PriorityFetchQueue;
+import net.minso.chathead.API.metrics.HeadMetrics;
+import net.minso.chathead.API.shared.SharedHeadStore;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * A {@link HeadCache} of a single player whose fetches run inline on the looking-up thread, against a skin source
+ * counting them, so every outcome of a stress test is settled once its actors have returned.
+ */
+final class StressCache {
+
+    private static final UUID PLAYER = UUID.fromString("069a79f4-44e9-4726-a5be-fca90e38aaf5");
+
+    /**
+     * The head returned by every fetch. Misses return an empty array, as fallback heads are disabled.
+     */
+    static final BaseComponent[] HEAD = {new TextComponent("head")};
+
+    private final AtomicInteger fetches = new AtomicInteger();
+    private final HeadMetrics metrics = new HeadMetrics();
+    private final HeadCache cache;
+    private final SkinSource source = new SkinSource(SkinSourceEnum.MOJANG, false) {
+        @Override
+        public BaseComponent[] getHead(UUID uuid, @Nullable String name, boolean overlay) {
+            fetches.incrementAndGet();
+            return HEAD;
+        }
+    };
+
+    /**
+     * @param expirationMillis the lifetime of the cached head.
+     * @param online           whether the player is online, so their expired head is renewed instead of fetched.
+     */
+    StressCache(long expirationMillis, boolean online) {
+        this(expirationMillis, online, new InlineFetchEngine());
+    }
+
+    /**
+     * @param expirationMillis the lifetime of the cached head.
+     * @param online           whether the player is online, so their expired head is renewed instead of fetched.
+     * @param engine           the engine running the fetches.
+     */
+    StressCache(long expirationMillis, boolean online, FetchEngine engine) {
+        HeadCachePlatform platform = new HeadCachePlatform() {
+            @Override
+            public boolean isEnabled() {
+                return true;
+            }
+
+            @Override
+            public boolean isOnline(UUID uuid) {
+                return online;
+            }
+
+            @Override
+            public @Nullable String getName(UUID uuid) {
+                return null;
+            }
+
+            @Override
+            public Logger getLogger() {
+                return Logger.getLogger("ChatHead");
+            }
+        };
+        PriorityFetchQueue fetchQueue = new PriorityFetchQueue(engine, Integer.MAX_VALUE, metrics);
+        this.cache = new HeadCache(platform, expirationMillis, metrics, fetchQueue, SharedHeadStore.NONE);
+        this.cache.setFallbackEnabled(false);
+    }
+
+    /**
+     * Looks the head up, fetching it inline if needed.
+     *
+     * @return the head, or an empty array if it wasn't cached.
+     */
+    BaseComponent[] lookup() {
+        return cache.getCachedHead(PLAYER, null, true, source, FetchPriority.NORMAL);
+    }
+
+    void cleanup() {
+        cache.cleanup();
+    }
+
+    /**
+     * @return the number of times the skin source was called.
+     */
+    int getFetches() {
+        return fetches.get();
+    }
+
+    /**
+     * @return the number of slots still loading.
+     */
+    long getQueueDepth() {
+        return metrics.snapshot().queueDepth();
+    }
+
+    /**
+     * Runs every fetch right away on the submitting thread.
+     */
+    static final class InlineFetchEngine implements FetchEngine {
+        @Override
+        public void execute(Runnable fetch) {
+            fetch.run();
+        }
+
+        @Override
+        public void shutdown() {
+        }
+
+        @Override
+        public String getName() {
+            return "inline";
+        }
+    }
+
+    /**
+     * Refuses every fetch with an unexpected exception, like a server scheduler used after the plugin was disabled.
+     */
+    static final class FailingFetchEngine implements FetchEngine {
+        @Override
+        public void execute(Runnable fetch) {
+            throw new IllegalStateException("Plugin attempted to register task while disabled");
+        }
+
+        @Override
+        public void shutdown() {
+        }
+
+        @Override
+        public String getName() {
+            return "failing";
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package net.minso.chathead.stress;
+
+import org.openjdk.jcstress.annotations.Actor;
+import org.openjdk.jcstress.annotations.Arbiter;
+import org.openjdk.jcstress.annotations.Description;
+import org.openjdk.jcstress.annotations.Expect;
+import org.openjdk.jcstress.annotations.JCStressTest;
+import org.openjdk.jcstress.annotations.Outcome;
+import org.openjdk.jcstress.annotations.State;
+import org.openjdk.jcstress.infra.results.II_Result;
+
+/**
+ * The head of an online player expires right away, so both lookups may fetch it again while {@code cleanup()} renews
+ * it. Renewals and fetches replace the whole slot state with compare-and-set, so a timestamp can't be torn, no slot
+ * is left loading and the head is never lost.
+ */
+@JCStressTest
+@Description("Concurrent timestamp renewals and refetches keep the head of an online player.")
+@Outcome(id = "0, 1", expect = Expect.ACCEPTABLE, desc = "No slot left loading, the head is still cached.")
+@Outcome(expect = Expect.FORBIDDEN, desc = "A slot was left loading, or the head was lost.")
+@State
+public class TimestampRenewalTest {
+
+    private final StressCache cache = new StressCache(0, true);
+
+    @Actor
+    public void first() {
+        cache.lookup();
+    }
+
+    @Actor
+    public void second() {
+        cache.lookup();
+    }
+
+    @Actor
+    public void cleanup() {
+        cache.cleanup();
+    }
+
+    @Arbiter
+    public void arbiter(II_Result result) {
+        result.r1 = (int) cache.getQueueDepth();
+        result.r2 = cache.lookup() == StressCache.HEAD ? 1 : 0;
+    }
+}